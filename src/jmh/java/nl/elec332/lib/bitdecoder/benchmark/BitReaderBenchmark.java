@@ -0,0 +1,125 @@
+package nl.elec332.lib.bitdecoder.benchmark;
+
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+import nl.elec332.lib.bitdecoder.api.IResettableBitReader;
+import nl.elec332.lib.bitdecoder.impl.BitReader;
+import nl.elec332.lib.bitdecoder.impl.WordBitReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Raw reader throughput, every invocation reads {@link #READS} values starting at the given bit alignment
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BitReaderBenchmark {
+
+    private static final int READS = 256;
+    private static final int DATA_SIZE = 16 * 1024;
+
+    @Param({"BitReader", "WordBitReader"})
+    public String reader;
+
+    @Param({"0", "1", "3", "7"})
+    public int alignment;
+
+    private byte[] data;
+    private byte[] varInts;
+    private byte[] expGolombs;
+    private byte[] dest;
+    private int[] samples;
+    private IResettableBitReader bitReader;
+
+    @Setup
+    public void setup() {
+        data = PacketCorpus.data(DATA_SIZE);
+        varInts = PacketCorpus.varInts(READS, alignment);
+        expGolombs = PacketCorpus.expGolombs(READS, alignment);
+        dest = new byte[8 * 1024];
+        samples = new int[4 * 1024];
+        bitReader = "BitReader".equals(reader) ? new BitReader(data, 0) : new WordBitReader(data, 0);
+    }
+
+    private IBitReader reset() {
+        return reset(data);
+    }
+
+    private IBitReader reset(byte[] data) {
+        IBitReader ret = bitReader.reset(data, 0, data.length);
+        ret.readBits(alignment);
+        return ret;
+    }
+
+    @Benchmark
+    public long readFewBits() {
+        IBitReader reader = reset();
+        long ret = 0;
+        for (int i = 0; i < READS; i++) {
+            ret += reader.readFewBits(5);
+        }
+        return ret;
+    }
+
+    @Benchmark
+    public long readBits() {
+        IBitReader reader = reset();
+        long ret = 0;
+        for (int i = 0; i < READS; i++) {
+            ret += reader.readBits(13);
+        }
+        return ret;
+    }
+
+    @Benchmark
+    public long readManyBits() {
+        IBitReader reader = reset();
+        long ret = 0;
+        for (int i = 0; i < READS; i++) {
+            ret += reader.readManyBits(41);
+        }
+        return ret;
+    }
+
+    @Benchmark
+    public long readVarInt() {
+        IBitReader reader = reset(varInts);
+        long ret = 0;
+        for (int i = 0; i < READS; i++) {
+            ret += reader.readVarInt();
+        }
+        return ret;
+    }
+
+    @Benchmark
+    public long readExpGolomb() {
+        IBitReader reader = reset(expGolombs);
+        long ret = 0;
+        for (int i = 0; i < READS; i++) {
+            ret += reader.readExpGolomb();
+        }
+        return ret;
+    }
+
+    @Benchmark
+    public void readBytes(Blackhole blackhole) {
+        blackhole.consume(reset().readBytes(dest.length));
+    }
+
+    @Benchmark
+    public byte[] readBytesInto() {
+        reset().readBytes(dest, 0, dest.length);
+        return dest;
+    }
+
+    @Benchmark
+    public int[] readPacked() {
+        reset().readPacked(samples, 0, samples.length, 12);
+        return samples;
+    }
+
+}
@@ -0,0 +1,191 @@
+package nl.elec332.lib.bitdecoder.benchmark;
+
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.bitdecoder.impl.DynamicPacketSpec;
+
+import java.util.Random;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Specs and generated packets shared by all benchmarks, the packets are generated with a fixed seed
+ * so every run decodes exactly the same data.
+ */
+public final class PacketCorpus {
+
+    private PacketCorpus() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static final int PACKET_SIZE = 64;
+
+    /**
+     * Generates random packets of {@link #PACKET_SIZE} bytes, large enough for every spec in this corpus
+     *
+     * @param count The amount of packets
+     * @return The packets
+     */
+    public static byte[][] packets(int count) {
+        Random random = new Random(0x5EED);
+        byte[][] ret = new byte[count][PACKET_SIZE];
+        for (byte[] packet : ret) {
+            random.nextBytes(packet);
+        }
+        return ret;
+    }
+
+    /**
+     * Generates random data
+     *
+     * @param size The amount of bytes
+     * @return The data
+     */
+    public static byte[] data(int size) {
+        byte[] ret = new byte[size];
+        new Random(0xDA7A).nextBytes(ret);
+        return ret;
+    }
+
+    /**
+     * Generates LEB128 varints of 1 to 10 bytes
+     *
+     * @param count    The amount of varints
+     * @param bitIndex The bit index the first varint starts at, the bits before it are zero
+     * @return The encoded varints
+     */
+    public static byte[] varInts(int count, int bitIndex) {
+        Random random = new Random(0x1EB128);
+        byte[] ret = new byte[count * 10 + 1];
+        long position = bitIndex;
+        for (int i = 0; i < count; i++) {
+            long value = random.nextLong() >>> random.nextInt(64);
+            while ((value & ~0x7FL) != 0) {
+                position = put(ret, position, (value & 0x7F) | 0x80, 8);
+                value >>>= 7;
+            }
+            position = put(ret, position, value, 8);
+        }
+        return ret;
+    }
+
+    /**
+     * Generates unsigned Exp-Golomb codes of 1 to 63 bits
+     *
+     * @param count    The amount of codes
+     * @param bitIndex The bit index the first code starts at, the bits before it are zero
+     * @return The encoded codes
+     */
+    public static byte[] expGolombs(int count, int bitIndex) {
+        Random random = new Random(0xE6);
+        byte[] ret = new byte[count * 8 + 1];
+        long position = bitIndex;
+        for (int i = 0; i < count; i++) {
+            long code = (random.nextLong() >>> (33 + random.nextInt(31))) + 1;
+            int bits = 64 - Long.numberOfLeadingZeros(code);
+            position = put(ret, position + bits - 1, code, bits);
+        }
+        return ret;
+    }
+
+    /**
+     * Writes the lowest bits of the value MSB first
+     *
+     * @return The position after the written bits
+     */
+    private static long put(byte[] dest, long position, long value, int bits) {
+        for (int i = bits - 1; i >= 0; i--, position++) {
+            if (((value >>> i) & 1) != 0) {
+                dest[(int) (position >>> 3)] |= 0x80 >>> (position & 7);
+            }
+        }
+        return position;
+    }
+
+    /**
+     * @param name The name of the spec: flat, nested, choice or deep
+     * @return The requested spec
+     */
+    public static IDynamicPacketSpec spec(String name) {
+        switch (name) {
+            case "flat":
+                return flat();
+            case "nested":
+                return nested();
+            case "choice":
+                return choice();
+            case "deep":
+                return deep();
+            default:
+                throw new IllegalArgumentException(name);
+        }
+    }
+
+    /**
+     * Header-like spec made up of fixed-width parameters only
+     */
+    private static IDynamicPacketSpec flat() {
+        IDynamicPacketSpec.Builder builder = DynamicPacketSpec.builder();
+        for (int i = 0; i < 24; i++) {
+            int bits = 1 + (i * 7) % 17;
+            if (i % 3 == 0) {
+                builder.addSigned("s" + i, bits);
+            } else {
+                builder.addUnsigned("u" + i, bits);
+            }
+        }
+        return builder.addFlag("flag")
+                .addFloat("float")
+                .build();
+    }
+
+    /**
+     * A header followed by named sub-specs using plain parameter functions
+     */
+    private static IDynamicPacketSpec nested() {
+        IDynamicPacketSpec.Builder builder = DynamicPacketSpec.builder()
+                .addParameter("version", r -> r.readFewBits(4))
+                .addParameter("length", r -> r.readBits(12));
+        for (int i = 0; i < 4; i++) {
+            builder.addNestedParameter("sub" + i, (reader, tree) -> true, b -> b
+                    .addParameter("id", IBitReader::readByte)
+                    .addParameter("value", r -> r.readManyBits(40))
+                    .addParameter("flags", r -> r.readFewBits(3)));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Every parameter depends on a preceding flag
+     */
+    private static IDynamicPacketSpec choice() {
+        IDynamicPacketSpec.Builder builder = DynamicPacketSpec.builder();
+        for (int i = 0; i < 12; i++) {
+            int n = i;
+            builder.addChoiceParameters("c" + i, IBitReader::readBit,
+                    b -> b.addParameter("a" + n, r -> r.readBits(11)),
+                    b -> b.addParameter("b" + n, r -> r.readFewBits(5)));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Specs nested 8 levels deep, with a few parameters on every level
+     */
+    private static IDynamicPacketSpec deep() {
+        IDynamicPacketSpec spec = DynamicPacketSpec.builder()
+                .setName("level8")
+                .addParameter("leaf", r -> r.readBits(16))
+                .build();
+        for (int i = 7; i >= 0; i--) {
+            spec = DynamicPacketSpec.builder()
+                    .setName("level" + i)
+                    .addParameter("tag", IBitReader::readByte)
+                    .addParameter("length", r -> r.readBits(9))
+                    .addNestedParameter(spec)
+                    .build();
+        }
+        return spec;
+    }
+
+}
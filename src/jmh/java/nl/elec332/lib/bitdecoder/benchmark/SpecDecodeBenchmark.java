@@ -0,0 +1,41 @@
+package nl.elec332.lib.bitdecoder.benchmark;
+
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Spec decoding throughput, every invocation decodes the entire corpus of generated packets
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpecDecodeBenchmark {
+
+    private static final int PACKETS = 1024;
+
+    @Param({"flat", "nested", "choice", "deep"})
+    public String spec;
+
+    private IDynamicPacketSpec packetSpec;
+    private byte[][] packets;
+
+    @Setup
+    public void setup() {
+        packetSpec = PacketCorpus.spec(spec);
+        packets = PacketCorpus.packets(PACKETS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PACKETS)
+    public void decode(Blackhole blackhole) {
+        for (byte[] packet : packets) {
+            blackhole.consume(packetSpec.decode(packet));
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package nl.elec332.lib.bitdecoder.api;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Thrown when an assertion on the data fails (see {@link IDynamicPacketSpec.Builder#assertReader}).
+ * Does not fill in its stack trace, so probing malformed data stays cheap.
+ */
+public class DecodeAssertionError extends AssertionError {
+
+    public DecodeAssertionError(String message) {
+        super(message);
+        this.path = "";
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private String path;
+
+    /**
+     * Returns the names of the (nested) specs in which this error was thrown, separated by {@code /}
+     *
+     * @return The spec path, empty if no named spec was involved
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Adds the name of a spec in which this error passed through to the front of the spec path
+     *
+     * @param name The name of the spec
+     * @return This error
+     */
+    public DecodeAssertionError addParent(String name) {
+        path = path.isEmpty() ? name : name + "/" + path;
+        return this;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+}
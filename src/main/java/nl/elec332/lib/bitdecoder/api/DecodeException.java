@@ -0,0 +1,45 @@
+package nl.elec332.lib.bitdecoder.api;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Thrown when data cannot be decoded, EG: because the reader ran out of data.
+ * Does not fill in its stack trace, so probing malformed data stays cheap.
+ */
+public class DecodeException extends IllegalStateException {
+
+    public DecodeException(String message) {
+        super(message);
+        this.path = "";
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private String path;
+
+    /**
+     * Returns the names of the (nested) specs in which this exception was thrown, separated by {@code /}
+     *
+     * @return The spec path, empty if no named spec was involved
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Adds the name of a spec in which this exception passed through to the front of the spec path
+     *
+     * @param name The name of the spec
+     * @return This exception
+     */
+    public DecodeException addParent(String name) {
+        path = path.isEmpty() ? name : name + "/" + path;
+        return this;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+}
@@ -1,5 +1,7 @@
 package nl.elec332.lib.bitdecoder.api;
 
+import java.nio.ByteBuffer;
+
 /**
  * Created by Elec332 on 6-5-2020
  * <p>
@@ -37,6 +39,17 @@ public interface IBitReader {
      */
     Object getProperty(String name);
 
+    /**
+     * Creates a reader that is limited to the next few bits of this reader, and moves this reader past them.
+     * The returned reader is independent of this reader, so it can be used at any time (and on any thread)
+     * as long as the underlying data isn't modified.
+     * Readers backed by memory return a view of the underlying data, other readers copy the bits.
+     *
+     * @param bits The amount of bits the returned reader is limited to
+     * @return A reader for the next {@code bits} bits
+     */
+    IBitReader slice(long bits);
+
     /**
      * Reads a single bit (1 or 0, true or false)
      *
@@ -79,6 +92,86 @@ public interface IBitReader {
      */
     byte[] peekBytesThrowing(int bytes) throws IllegalStateException;
 
+    /**
+     * Peeks the next {@code <= 24} bits without consuming them, does not need to be byte-aligned
+     *
+     * @param bits The amount of bits to peek
+     * @return The peeked bits
+     * @throws IllegalStateException When not enough data is available
+     */
+    default int peekBits(int bits) {
+        if (bits > 24) {
+            throw new IllegalArgumentException("Too many bits, try another method");
+        }
+        return (int) peekLong(bits);
+    }
+
+    /**
+     * Peeks the next {@code <= 64} bits without consuming them, does not need to be byte-aligned
+     *
+     * @param bits The amount of bits to peek
+     * @return The peeked bits
+     * @throws IllegalStateException When not enough data is available
+     */
+    default long peekLong(int bits) {
+        if (bits > 64) {
+            throw new IllegalArgumentException("Too many bits, try another method");
+        }
+        if (bits <= 0) {
+            return 0;
+        }
+        int o = getBitIndex();
+        long ret = 0;
+        for (byte b : peekBytes((o + bits + 7) >>> 3)) {
+            int available = 8 - o;
+            int read = Math.min(available, bits);
+            ret = (ret << read) | ((Byte.toUnsignedInt(b) >>> (available - read)) & ((1 << read) - 1));
+            bits -= read;
+            o = 0;
+        }
+        return ret;
+    }
+
+    /**
+     * Checks if the next bits match the provided pattern, without consuming them.
+     * Does not need to be byte-aligned.
+     *
+     * @param pattern The pattern, in the lowest bits
+     * @param bits    The amount of bits to match {@code (<= 64)}
+     * @return Whether the next bits match the given pattern, false if not enough data is available
+     */
+    default boolean matches(long pattern, int bits) {
+        try {
+            return peekLong(bits) == pattern;
+        } catch (IllegalStateException | IndexOutOfBoundsException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks if the next bytes match the provided pattern, without consuming them.
+     * Does not need to be byte-aligned.
+     *
+     * @param pattern The bytes to match
+     * @return Whether the next bytes match the given pattern, false if not enough data is available
+     */
+    default boolean matchesBytes(byte[] pattern) {
+        byte[] data;
+        try {
+            data = peekBytes(pattern.length + (getBitIndex() == 0 ? 0 : 1));
+        } catch (IllegalStateException | IndexOutOfBoundsException e) {
+            return false;
+        }
+        int o = getBitIndex();
+        for (int i = 0; i < pattern.length; i++) {
+            int b = o == 0 ? data[i] : (data[i] << o) | (Byte.toUnsignedInt(data[i + 1]) >>> (8 - o));
+            if ((byte) b != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Returns the byte that is currently being read
      *
@@ -100,6 +193,58 @@ public interface IBitReader {
         return ret;
     }
 
+    /**
+     * Reads multiple (signed) bytes into the provided array
+     *
+     * @param dest   The destination array
+     * @param offset The start index in the destination array
+     * @param length The amount of bytes to be read
+     */
+    default void readBytes(byte[] dest, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[offset + i] = (byte) readByte();
+        }
+    }
+
+    /**
+     * Reads multiple bytes as a read-only {@link ByteBuffer}.
+     * When the current bit-index is zero and the reader is backed by memory,
+     * the returned buffer is a view of the underlying data and nothing gets copied,
+     * so it is only valid as long as the underlying data isn't modified.
+     * Otherwise the bytes will be copied.
+     *
+     * @param bytes The amount of bytes to be read
+     * @return The requested bytes, positioned at zero
+     */
+    default ByteBuffer readSlice(int bytes) {
+        return ByteBuffer.wrap(readBytes(bytes)).asReadOnlyBuffer();
+    }
+
+    /**
+     * Moves this reader forward by the provided amount of bits, without reading them
+     *
+     * @param bits The amount of bits to skip
+     */
+    default void skipBits(long bits) {
+        if (bits < 0) {
+            throw new IllegalArgumentException("Invalid amount of bits: " + bits);
+        }
+        for (; bits >= 64; bits -= 64) {
+            readLong(64);
+        }
+        readLong((int) bits);
+    }
+
+    /**
+     * Moves this reader forward by the provided amount of bytes, without reading them
+     * The bytes do not need to be aligned.
+     *
+     * @param bytes The amount of bytes to skip
+     */
+    default void skipBytes(int bytes) {
+        skipBits((long) bytes << 3);
+    }
+
     /**
      * Read a few {@code <= 6} bits
      *
@@ -150,13 +295,182 @@ public interface IBitReader {
         for (int i = 0; i < times; i++) {
             ret |= (long) readByte() << (bits - ((i + 1) * 8));
         }
-        if (bits % 8 > 0) {
-            ret |= readFewBits(bits % 8);
+        int rest = bits % 8;
+        if (rest > 6) {
+            ret |= (long) readFewBits(rest - 6) << 6;
+            rest = 6;
+        }
+        if (rest > 0) {
+            ret |= readFewBits(rest);
         }
 
         return ret;
     }
 
+    /**
+     * Reads multiple {@code <= 64} bits as a long
+     *
+     * @param bits The amount of bits to be read
+     * @return The requested bits
+     */
+    default long readLong(int bits) {
+        if (bits > 64) {
+            throw new IllegalArgumentException("Too many bits, try another method");
+        }
+        if (bits <= 48) {
+            return readManyBits(bits);
+        }
+        long ret = readManyBits(bits - 32) << 32;
+        return ret | readManyBits(32);
+    }
+
+    /**
+     * Reads multiple {@code <= 64} bits as a two's complement signed value
+     *
+     * @param bits The amount of bits to be read
+     * @return The requested bits, sign-extended to a long
+     */
+    default long readSignedBits(int bits) {
+        if (bits == 0) {
+            return 0;
+        }
+        return readLong(bits) << (64 - bits) >> (64 - bits);
+    }
+
+    /**
+     * Reads an unsigned LEB128 (protobuf) varint, 7 bits per byte with the least significant group first.
+     * The bytes do not need to be aligned.
+     *
+     * @return The decoded value
+     */
+    default long readVarInt() {
+        long ret = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            long b = readLong(8);
+            ret |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return ret;
+            }
+        }
+        throw new DecodeException("Varint is longer than 10 bytes");
+    }
+
+    /**
+     * Reads a zigzag-encoded LEB128 varint (protobuf sint32/sint64), see {@link #readVarInt()}
+     *
+     * @return The decoded (signed) value
+     */
+    default long readZigZagVarInt() {
+        long value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads an unsigned Exp-Golomb code: N leading zero bits, followed by the N + 1 bits of {@code value + 1}
+     *
+     * @return The decoded value
+     */
+    default long readExpGolomb() {
+        int zeros = 0;
+        while (!readBit()) {
+            if (++zeros > 63) {
+                throw new DecodeException("Exp-Golomb code is longer than 127 bits");
+            }
+        }
+        return zeros == 0 ? 0 : ((1L << zeros) | readLong(zeros)) - 1;
+    }
+
+    /**
+     * Reads a signed Exp-Golomb code, the unsigned values {@code 0, 1, 2, 3, 4...} map to {@code 0, 1, -1, 2, -2...}
+     *
+     * @return The decoded (signed) value
+     */
+    default long readSignedExpGolomb() {
+        long value = readExpGolomb();
+        long ret = (value >>> 1) + (value & 1);
+        return (value & 1) != 0 ? ret : -ret;
+    }
+
+    /**
+     * Reads an Elias-gamma code: N leading zero bits, followed by the N + 1 bits of the (positive) value
+     *
+     * @return The decoded value, always {@code >= 1}
+     */
+    default long readEliasGamma() {
+        return readExpGolomb() + 1;
+    }
+
+    /**
+     * Reads multiple unsigned values of the same width into the provided array
+     *
+     * @param dest   The destination array
+     * @param offset The start index in the destination array
+     * @param count  The amount of values to be read
+     * @param bits   The width of every value {@code (1 - 32)}
+     */
+    default void readPacked(int[] dest, int offset, int count, int bits) {
+        if (bits < 1 || bits > 32) {
+            throw new IllegalArgumentException("Invalid amount of bits: " + bits);
+        }
+        for (int i = 0; i < count; i++) {
+            dest[offset + i] = (int) readLong(bits);
+        }
+    }
+
+    /**
+     * Reads multiple unsigned values of the same width into the provided array
+     *
+     * @param dest   The destination array
+     * @param offset The start index in the destination array
+     * @param count  The amount of values to be read
+     * @param bits   The width of every value {@code (1 - 64)}
+     */
+    default void readPacked(long[] dest, int offset, int count, int bits) {
+        if (bits < 1 || bits > 64) {
+            throw new IllegalArgumentException("Invalid amount of bits: " + bits);
+        }
+        for (int i = 0; i < count; i++) {
+            dest[offset + i] = readLong(bits);
+        }
+    }
+
+    /**
+     * Reads multiple {@code <= 64} bits in little-endian byte order.
+     * The first 8 bits read will be the least significant byte,
+     * a trailing partial byte will be the most significant part of the value.
+     *
+     * @param bits The amount of bits to be read
+     * @return The requested bits
+     */
+    default long readBitsLE(int bits) {
+        if (bits > 64) {
+            throw new IllegalArgumentException("Too many bits, try another method");
+        }
+        long ret = 0;
+        for (int shift = 0; shift < bits; shift += 8) {
+            ret |= readLong(Math.min(8, bits - shift)) << shift;
+        }
+        return ret;
+    }
+
+    /**
+     * Reads a 32-bit IEEE 754 float, does not need to be byte-aligned
+     *
+     * @return The float made up by the next 32 bits
+     */
+    default float readFloat() {
+        return Float.intBitsToFloat((int) readLong(32));
+    }
+
+    /**
+     * Reads a 64-bit IEEE 754 double, does not need to be byte-aligned
+     *
+     * @return The double made up by the next 64 bits
+     */
+    default double readDouble() {
+        return Double.longBitsToDouble(readLong(64));
+    }
+
     /**
      * Finishes reading the current byte and moves on to the next one
      * Basically: bitIndex = 0; byteIndex++;
@@ -0,0 +1,50 @@
+package nl.elec332.lib.bitdecoder.api;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Receives decode events of a {@link IDynamicPacketSpec}, see {@link IDynamicPacketSpec.Builder#setListener(IDecodeListener)}
+ * Specs without a listener do not record anything.
+ * Listeners can be called from multiple threads at once.
+ */
+public interface IDecodeListener {
+
+    /**
+     * Called when a packet has been decoded successfully
+     *
+     * @param spec The spec that decoded the packet
+     * @param bits The amount of bits that have been consumed
+     */
+    default void onPacketDecoded(IDynamicPacketSpec spec, long bits) {
+    }
+
+    /**
+     * Called when decoding a packet failed, the error will be rethrown afterwards
+     *
+     * @param spec The spec that failed to decode the packet
+     * @param error The error
+     */
+    default void onDecodeFailed(IDynamicPacketSpec spec, Throwable error) {
+    }
+
+    /**
+     * Called after every parameter, only when {@link #timeParameters()} returns true
+     *
+     * @param spec The spec that decoded the parameter
+     * @param name The name of the parameter, or {@code #index} for parameters without a name
+     * @param nanos The time it took to decode the parameter in nanoseconds
+     */
+    default void onParameterDecoded(IDynamicPacketSpec spec, String name, long nanos) {
+    }
+
+    /**
+     * Whether every parameter should be timed individually.
+     * Only checked when the spec gets built, parameters will not be compiled into programs when enabled.
+     *
+     * @return Whether every parameter should be timed individually
+     */
+    default boolean timeParameters() {
+        return false;
+    }
+
+}
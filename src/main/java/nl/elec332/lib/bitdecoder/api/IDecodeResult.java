@@ -0,0 +1,54 @@
+package nl.elec332.lib.bitdecoder.api;
+
+import nl.elec332.lib.java.tree.INamedTreePart;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Outcome of decoding a packet without throwing, see {@link IDynamicPacketSpec#tryDecode(IBitReader)}
+ */
+public interface IDecodeResult {
+
+    /**
+     * Whether the packet has been decoded successfully
+     *
+     * @return Whether the packet has been decoded successfully
+     */
+    boolean isSuccess();
+
+    /**
+     * Returns the decoded data
+     *
+     * @return The decoded data, or null if decoding failed
+     */
+    INamedTreePart getTree();
+
+    /**
+     * Returns the byte-index of the reader when decoding ended (or failed)
+     *
+     * @return The byte-index at which decoding ended
+     */
+    int getByteIndex();
+
+    /**
+     * Returns the bit-index of the reader when decoding ended (or failed)
+     *
+     * @return The bit-index at which decoding ended
+     */
+    int getBitIndex();
+
+    /**
+     * Returns the names of the (nested) specs in which decoding failed, separated by {@code /}
+     *
+     * @return The spec path, empty on success or if no named spec was involved
+     */
+    String getPath();
+
+    /**
+     * Returns the reason why decoding failed
+     *
+     * @return The reason why decoding failed, or null on success
+     */
+    String getReason();
+
+}
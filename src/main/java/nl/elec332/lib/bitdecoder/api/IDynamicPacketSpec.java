@@ -2,12 +2,23 @@ package nl.elec332.lib.bitdecoder.api;
 
 import nl.elec332.lib.java.tree.INamedTreePart;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.*;
 
 /**
  * Created by Elec332 on 29-4-2020
  * <p>
  * Dynamic (sub)packet specification
+ * <p>
+ * Specifications are immutable once built, and can be shared between threads
+ * as long as the functions and predicates provided to the builder do not keep state themselves.
  */
 public interface IDynamicPacketSpec {
 
@@ -44,6 +55,45 @@ public interface IDynamicPacketSpec {
      */
     INamedTreePart decode(byte[] data, int byteIndex);
 
+    /**
+     * Decodes this (sub)packet spec given a byte array, a byte-index and a caller-owned reader.
+     * The reader will be reset to the provided data, so it can be reused for every packet.
+     *
+     * @param data The data
+     * @param byteIndex The index from which to start reading
+     * @param length The amount of bytes that belong to this packet
+     * @param reader The reader to (re)use
+     * @return The decoded (sub)packet data
+     */
+    default INamedTreePart decode(byte[] data, int byteIndex, int length, IResettableBitReader reader) {
+        return decode(reader.reset(data, byteIndex, length));
+    }
+
+    /**
+     * Decodes this (sub)packet spec given a byte array, a byte-index and a caller-owned reader
+     * to the provided {@link INamedTreePart}.
+     * The reader will be reset to the provided data, so it can be reused for every packet.
+     *
+     * @param data The data
+     * @param byteIndex The index from which to start reading
+     * @param length The amount of bytes that belong to this packet
+     * @param reader The reader to (re)use
+     * @param tree The tree to write the data to
+     */
+    default void decode(byte[] data, int byteIndex, int length, IResettableBitReader reader, INamedTreePart tree) {
+        decode(reader.reset(data, byteIndex, length), tree);
+    }
+
+    /**
+     * Decodes this (sub)packet spec from a {@link ByteBuffer} (heap, direct or memory-mapped) without copying its contents.
+     * Reading starts at the position of the buffer and is bounded by its limit,
+     * afterwards the position of the buffer is moved past the (partially) consumed bytes.
+     *
+     * @param buffer The data
+     * @return The decoded (sub)packet data
+     */
+    INamedTreePart decode(ByteBuffer buffer);
+
     /**
      * Decodes this (sub)packet spec from a {@link IBitReader}
      *
@@ -52,6 +102,133 @@ public interface IDynamicPacketSpec {
      */
     INamedTreePart decode(IBitReader reader);
 
+    /**
+     * Decodes this (sub)packet spec given a byte array and a byte-index, without throwing when the data is malformed
+     *
+     * @param data The data
+     * @param byteIndex The index from which to start reading
+     * @return The result, containing either the decoded data or the position and reason of the failure
+     */
+    IDecodeResult tryDecode(byte[] data, int byteIndex);
+
+    /**
+     * Decodes this (sub)packet spec from a {@link IBitReader}, without throwing when the data is malformed.
+     * Errors thrown by the functions provided to the builder will also be turned into a failed result.
+     *
+     * @param reader The reader
+     * @return The result, containing either the decoded data or the position and reason of the failure
+     */
+    IDecodeResult tryDecode(IBitReader reader);
+
+    /**
+     * Moves the reader to the next sync word and decodes this (sub)packet spec from there.
+     * When decoding fails (EG: due to corrupted data), the search continues one bit after the start of the failed packet,
+     * like {@link #decodeSynced(byte[], int, int, ISyncScanner)}.
+     * Readers that cannot move back (EG: stream readers) resynchronize on the next sync word after the position where decoding failed instead.
+     *
+     * @param reader The reader
+     * @param sync The scanner for the sync word at the start of every packet
+     * @return The decoded (sub)packet data, or null if no more (valid) packets can be found
+     */
+    default INamedTreePart decodeNext(IBitReader reader, ISyncScanner sync) {
+        while (sync.find(reader)) {
+            int byteIndex = reader.getByteIndex();
+            int bitIndex = reader.getBitIndex();
+            try {
+                return decode(reader);
+            } catch (RuntimeException | AssertionError e) {
+                //Corrupted packet, readers can't be moved back from here, so make sure the next search doesn't end up at the same sync word
+                if (reader.getByteIndex() == byteIndex && reader.getBitIndex() == bitIndex) {
+                    reader.readBit();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Searches the provided range for sync words, and decodes this (sub)packet spec from every one of them.
+     * When decoding fails (EG: due to corrupted data), the search continues one bit after the start of the failed packet.
+     * After a successful decode, the search continues where the packet ended.
+     *
+     * @param data The data
+     * @param byteIndex The index from which to start searching
+     * @param length The amount of bytes to search
+     * @param sync The scanner for the sync word at the start of every packet
+     * @return All packets that have been decoded successfully, in order
+     */
+    List<INamedTreePart> decodeSynced(byte[] data, int byteIndex, int length, ISyncScanner sync);
+
+    /**
+     * Creates a lazy view over a packet in the provided byte array, parameters will only be decoded when they are accessed.
+     * Useful when only a few parameters of a large packet are needed.
+     * The data must not be modified while the view is in use.
+     *
+     * @param data The data
+     * @param byteIndex The index at which the packet starts
+     * @return A lazy view over the packet
+     */
+    ILazyPacket decodeLazy(byte[] data, int byteIndex);
+
+    /**
+     * Returns the total size of this spec in bits, which is only known when
+     * all parameters are fixed-width parameters (or fixed amounts of bytes)
+     *
+     * @return The size of this spec in bits, or -1 if it doesn't have a fixed size
+     */
+    long fixedSizeBits();
+
+    /**
+     * Returns the bit offset of a parameter from the start of the packet.
+     * Offsets are known for all fixed-width parameters (and fixed amounts of bytes) that
+     * are not preceded by any other kind of parameter.
+     *
+     * @param name The name of the parameter
+     * @return The bit offset of the parameter, or -1 if it isn't located at a fixed offset
+     */
+    long getBitOffset(String name);
+
+    /**
+     * Extracts a single parameter from a packet without decoding the parameters before it,
+     * see {@link #getBitOffset(String)}
+     *
+     * @param data The data
+     * @param byteIndex The index at which the packet starts
+     * @param name The name of the parameter
+     * @return The value of the parameter, as it would be stored in a decoded tree
+     * @throws IllegalArgumentException When the parameter isn't located at a fixed offset
+     */
+    Object extract(byte[] data, int byteIndex, String name);
+
+    /**
+     * Returns the slot index assigned to a parameter when this spec was built, see {@link IPacketRecord}
+     *
+     * @param name The name of the parameter
+     * @return The slot index of the parameter, or -1 if this spec cannot be decoded into a record or has no such parameter
+     */
+    int slotOf(String name);
+
+    /**
+     * Decodes this (sub)packet spec given a byte array and a byte-index into a compact record
+     *
+     * @param data The data
+     * @param byteIndex The index from which to start reading
+     * @return The decoded (sub)packet data
+     * @throws IllegalStateException When this spec defines a parameter more than once with different types
+     */
+    IPacketRecord decodeRecord(byte[] data, int byteIndex);
+
+    /**
+     * Decodes this (sub)packet spec from a {@link IBitReader} into a compact record.
+     * Every named parameter gets a slot, values returned by parameter functions are stored in the {@code Object[]} slots.
+     * Other predicates are given a tree view of the record, values they store under other names can only be looked up by name.
+     *
+     * @param reader The reader
+     * @return The decoded (sub)packet data
+     * @throws IllegalStateException When this spec defines a parameter more than once with different types
+     */
+    IPacketRecord decodeRecord(IBitReader reader);
+
     /**
      * Decodes this (sub)packet spec from a {@link IBitReader} to the provided {@link INamedTreePart}
      *
@@ -60,6 +237,146 @@ public interface IDynamicPacketSpec {
      */
     void decode(IBitReader reader, INamedTreePart tree);
 
+    /**
+     * Binds this (sub)packet spec to a public type, primitive values will be written without boxing.
+     * If the type has a public constructor with a parameter for every parameter of this spec (in order) it will be used,
+     * otherwise the public no-arg constructor will be used after which the values will be written using
+     * public setters ({@code setName(value)}) or public fields with the same name as the parameter.
+     * Parameters without a matching setter or field will be skipped.
+     * Only specs that consist solely of fixed-width parameters can be bound.
+     *
+     * @param type The type to bind to
+     * @param <T> The type to bind to
+     * @return A decoder for the provided type
+     * @throws IllegalStateException When this spec contains parameters that cannot be bound
+     * @throws IllegalArgumentException When the type has no usable constructor
+     */
+    default <T> ITypedDecoder<T> bind(Class<T> type) {
+        return bind(MethodHandles.publicLookup(), type);
+    }
+
+    /**
+     * Binds this (sub)packet spec to a type, primitive values will be written without boxing.
+     * Works the same as {@link #bind(Class)}, but uses the provided lookup to find constructors, setters and fields.
+     *
+     * @param lookup The lookup used to access the type
+     * @param type The type to bind to
+     * @param <T> The type to bind to
+     * @return A decoder for the provided type
+     * @throws IllegalStateException When this spec contains parameters that cannot be bound
+     * @throws IllegalArgumentException When the type has no usable constructor
+     */
+    <T> ITypedDecoder<T> bind(MethodHandles.Lookup lookup, Class<T> type);
+
+    /**
+     * Binds this (sub)packet spec to a factory, primitive values will be passed without boxing
+     * if the factory accepts primitives.
+     * The factory will receive every parameter of this spec, in order.
+     * Only specs that consist solely of fixed-width parameters can be bound.
+     *
+     * @param factory The factory that creates the objects
+     * @param <T> The type created by the factory
+     * @return A decoder using the provided factory
+     * @throws IllegalStateException When this spec contains parameters that cannot be bound
+     * @throws IllegalArgumentException When the factory cannot accept the parameters of this spec
+     */
+    <T> ITypedDecoder<T> bind(MethodHandle factory);
+
+    /**
+     * Decodes a batch of packets that are placed at a fixed distance from each other,
+     * every parameter will be stored in its own primitive column.
+     * Only specs that consist solely of fixed-width parameters can be decoded into columns.
+     * The last packet only has to fit its parameters, the stride may run past the end of the data.
+     *
+     * @param data The data
+     * @param byteIndex The index of the first packet
+     * @param count The amount of packets to decode
+     * @param stride The distance between the start of two packets, in bytes
+     * @return The decoded columns
+     * @throws IllegalStateException When this spec contains parameters that are not fixed-width parameters
+     */
+    default IPacketColumns decodeColumns(byte[] data, int byteIndex, int count, int stride) {
+        return decodeColumns(data, byteIndex, count, (d, i) -> stride);
+    }
+
+    /**
+     * Decodes a batch of consecutive packets, every parameter will be stored in its own primitive column.
+     * Only specs that consist solely of fixed-width parameters can be decoded into columns.
+     *
+     * @param data The data
+     * @param byteIndex The index of the first packet
+     * @param count The amount of packets to decode
+     * @param frameLength Determines the length of every packet, the next packet starts right after it
+     * @return The decoded columns
+     * @throws IllegalStateException When this spec contains parameters that are not fixed-width parameters
+     */
+    IPacketColumns decodeColumns(byte[] data, int byteIndex, int count, IFrameLength frameLength);
+
+    /**
+     * Decodes multiple frames in parallel on the common {@link ForkJoinPool}
+     * Every frame ends where the next one starts, the last frame ends at the end of the data.
+     *
+     * @param data The data
+     * @param offsets The start index of every frame, in ascending order
+     * @return The decoded frames, in the same order as the offsets
+     */
+    default List<INamedTreePart> decodeParallel(byte[] data, int[] offsets) {
+        return decodeParallel(data, offsets, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Decodes multiple frames in parallel on the provided {@link Executor}
+     * Every frame ends where the next one starts, the last frame ends at the end of the data.
+     *
+     * @param data The data
+     * @param offsets The start index of every frame, in ascending order
+     * @param executor The executor to decode the frames on
+     * @return The decoded frames, in the same order as the offsets
+     */
+    default List<INamedTreePart> decodeParallel(byte[] data, int[] offsets, Executor executor) {
+        return decodeParallel(data, offsets, data.length, executor);
+    }
+
+    /**
+     * Decodes multiple frames in parallel on the provided {@link Executor}
+     * Every frame ends where the next one starts, the last frame ends at the provided end index.
+     *
+     * @param data The data
+     * @param offsets The start index of every frame, in ascending order
+     * @param endIndex The (exclusive) index at which the last frame ends
+     * @param executor The executor to decode the frames on
+     * @return The decoded frames, in the same order as the offsets
+     */
+    List<INamedTreePart> decodeParallel(byte[] data, int[] offsets, int endIndex, Executor executor);
+
+    /**
+     * Finds the boundaries of all frames in the provided range, and decodes them in parallel on the provided {@link Executor}
+     *
+     * @param data The data
+     * @param byteIndex The index of the first frame
+     * @param length The amount of bytes containing frames
+     * @param frameLength Determines the length of every frame, the next frame starts right after it
+     * @param executor The executor to decode the frames on
+     * @return The decoded frames, in order
+     */
+    default List<INamedTreePart> decodeParallel(byte[] data, int byteIndex, int length, IFrameLength frameLength, Executor executor) {
+        int[] offsets = new int[16];
+        int count = 0;
+        int end = byteIndex + length;
+        while (byteIndex < end) {
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            offsets[count++] = byteIndex;
+            int frame = frameLength.getFrameLength(data, byteIndex);
+            if (frame <= 0) {
+                throw new IllegalArgumentException("Invalid frame length: " + frame);
+            }
+            byteIndex += frame;
+        }
+        return decodeParallel(data, Arrays.copyOf(offsets, count), end, executor);
+    }
+
     /**
      * Builder for a (sub)packet specification
      */
@@ -73,6 +390,25 @@ public interface IDynamicPacketSpec {
          */
         Builder setName(String name);
 
+        /**
+         * Sets whether a dedicated decoder class should be generated for the fixed-width parameters of this spec.
+         * The class gets generated when this builder gets built, and reads every parameter in straight-line code.
+         * Only worth it for specs that are used often, as every generated class stays loaded.
+         *
+         * @param generate Whether to generate a dedicated decoder class
+         * @return The current builder
+         */
+        Builder setGenerateBytecode(boolean generate);
+
+        /**
+         * Sets the listener that will receive the decode events of the spec built by this builder.
+         * Without a listener (the default), nothing will be recorded.
+         *
+         * @param listener The listener, can be null
+         * @return The current builder
+         */
+        Builder setListener(IDecodeListener listener);
+
         /**
          * Imports another builder (with all its parameters) into this builder
          *
@@ -125,7 +461,7 @@ public interface IDynamicPacketSpec {
         default Builder discardBytes(ToIntBiFunction<IBitReader, INamedTreePart> amount) {
             return addSpecialParameter((reader, tree) -> {
                 reader.finishByte();
-                reader.readBytes(amount.applyAsInt(reader, tree));
+                reader.skipBytes(amount.applyAsInt(reader, tree));
             });
         }
 
@@ -355,6 +691,74 @@ public interface IDynamicPacketSpec {
             });
         }
 
+        /**
+         * Adds a branch based on the value of an earlier fixed-width integer or flag parameter (flags are passed as 0 or 1).
+         * The value is looked up by slot index instead of by name, and never gets boxed when decoding into a record.
+         *
+         * @param field The name of the parameter the predicate will be tested with
+         * @param predicate The predicate used to determine which branch to take
+         * @param whenTrue The {@link IDynamicPacketSpec} specification to decode when the predicate returns true,
+         *                 can be null.
+         * @param whenFalse The {@link IDynamicPacketSpec} specification to decode when the predicate returns false,
+         *                 can be null.
+         * @return The current builder
+         */
+        default Builder addFieldChoice(String field, LongPredicate predicate, IDynamicPacketSpec whenTrue, IDynamicPacketSpec whenFalse) {
+            return addChoiceParameters((reader, tree) -> {
+                Object value = tree.get(field);
+                return predicate.test(value instanceof Boolean ? ((Boolean) value ? 1 : 0) : ((Number) value).longValue());
+            }, whenTrue, whenFalse);
+        }
+
+        /**
+         * Adds a multi-way branch to the reader
+         * The key reader determines which of the cases will be decoded,
+         * when there is no case for the key the default case will be decoded.
+         *
+         * @param name The name for this branch, the key will be stored under this name. Can be null.
+         * @param keyReader The function used to determine the key of the case to decode
+         * @param cases The specification to decode for every key, none of them can be null
+         * @param defaultCase The specification to decode when there is no case for the key,
+         *                    can be null.
+         * @return The current builder
+         */
+        default Builder addSwitch(String name, ToIntFunction<IBitReader> keyReader, Map<Integer, IDynamicPacketSpec> cases, IDynamicPacketSpec defaultCase) {
+            return addSwitch(name, (reader, tree) -> keyReader.applyAsInt(reader), cases, defaultCase);
+        }
+
+        /**
+         * Adds a multi-way branch to the reader
+         * The key reader determines which of the cases will be decoded,
+         * when there is no case for the key the default case will be decoded.
+         *
+         * @param name The name for this branch, the key will be stored under this name. Can be null.
+         * @param keyReader The function used to determine the key of the case to decode
+         * @param cases The specification to decode for every key, none of them can be null
+         * @param defaultCase The specification to decode when there is no case for the key,
+         *                    can be null.
+         * @return The current builder
+         */
+        default Builder addSwitch(String name, ToIntBiFunction<IBitReader, INamedTreePart> keyReader, Map<Integer, IDynamicPacketSpec> cases, IDynamicPacketSpec defaultCase) {
+            if (name != null && name.isEmpty()) {
+                throw new IllegalArgumentException("Empty name!");
+            }
+            Map<Integer, IDynamicPacketSpec> table = Map.copyOf(cases);
+            return addSpecialParameter((reader, tree) -> {
+                int key = keyReader.applyAsInt(reader, tree);
+                if (name != null) {
+                    tree.put(name, key);
+                }
+                IDynamicPacketSpec choice = table.getOrDefault(key, defaultCase);
+                if (choice != null) {
+                    if (choice.hasName()) {
+                        tree.put(choice.getName(), choice.decode(reader));
+                    } else {
+                        choice.decode(reader, tree);
+                    }
+                }
+            });
+        }
+
         /**
          * Adds an already defined {@link IDynamicPacketSpec} specification as
          * a parameter to this builder using the name of the specification.
@@ -477,10 +881,17 @@ public interface IDynamicPacketSpec {
          */
         default Builder addNestedParameter(String name, BiPredicate<IBitReader, INamedTreePart> predicate, IDynamicPacketSpec decoder) {
             return addParameter(name, (reader, tree) -> {
-                if (predicate.test(reader, tree)) {
+                if (!predicate.test(reader, tree)) {
+                    return null;
+                }
+                //Named specs already add their own name to the spec path
+                try {
                     return decoder.decode(reader);
+                } catch (DecodeException e) {
+                    throw decoder.hasName() ? e : e.addParent(name);
+                } catch (DecodeAssertionError e) {
+                    throw decoder.hasName() ? e : e.addParent(name);
                 }
-                return null;
             });
         }
 
@@ -611,6 +1022,285 @@ public interface IDynamicPacketSpec {
             });
         }
 
+        /**
+         * Adds a fixed-width unsigned parameter to this builder
+         * The value will be stored as an {@link Integer} when {@code bits < 32}, or as a {@link Long} otherwise.
+         *
+         * @param name The name of the property
+         * @param bits The width of the parameter {@code (1 - 64)}
+         * @return The current builder
+         */
+        default Builder addUnsigned(String name, int bits) {
+            if (bits < 1 || bits > 64) {
+                throw new IllegalArgumentException("Invalid amount of bits: " + bits);
+            }
+            if (bits < 32) {
+                return addParameter(name, reader -> (int) reader.readLong(bits));
+            }
+            return addParameter(name, reader -> reader.readLong(bits));
+        }
+
+        /**
+         * Adds a fixed-width unsigned parameter to this builder, same as {@link #addUnsigned(String, int)}
+         *
+         * @param name The name of the property
+         * @param bits The width of the parameter {@code (1 - 64)}
+         * @return The current builder
+         */
+        default Builder addBits(String name, int bits) {
+            return addUnsigned(name, bits);
+        }
+
+        /**
+         * Adds a fixed amount of bytes to this builder, the value will be stored as a {@code byte[]}
+         * The bytes do not need to be aligned.
+         *
+         * @param name The name of the property
+         * @param count The amount of bytes
+         * @return The current builder
+         */
+        default Builder addFixedBytes(String name, int count) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Invalid amount of bytes: " + count);
+            }
+            return addParameter(name, reader -> reader.readBytes(count));
+        }
+
+        /**
+         * Adds a fixed amount of bytes to this builder, the value will be stored as a read-only {@link ByteBuffer}
+         * When the bytes are aligned, the buffer will be a view of the decoded data, see {@link IBitReader#readSlice(int)}
+         *
+         * @param name The name of the property
+         * @param count The amount of bytes
+         * @return The current builder
+         */
+        default Builder addSlice(String name, int count) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Invalid amount of bytes: " + count);
+            }
+            return addParameter(name, reader -> reader.readSlice(count));
+        }
+
+        /**
+         * Adds a variable amount of bytes to this builder, the value will be stored as a read-only {@link ByteBuffer}
+         * When the bytes are aligned, the buffer will be a view of the decoded data, see {@link IBitReader#readSlice(int)}
+         *
+         * @param name The name of the property
+         * @param length A function that will return the amount of bytes based on the current {@link IBitReader}
+         *               and the current data tree
+         * @return The current builder
+         */
+        default Builder addSlice(String name, ToIntBiFunction<IBitReader, INamedTreePart> length) {
+            return addParameter(name, (reader, tree) -> reader.readSlice(length.applyAsInt(reader, tree)));
+        }
+
+        /**
+         * Adds a fixed amount of unsigned values of the same width to this builder
+         * The values will be stored as an {@code int[]} when {@code bits < 32}, or as a {@code long[]} otherwise.
+         *
+         * @param name The name of the property
+         * @param bits The width of every value {@code (1 - 64)}
+         * @param count The amount of values
+         * @return The current builder
+         */
+        default Builder addRepeatedBits(String name, int bits, int count) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Invalid amount of values: " + count);
+            }
+            return addRepeatedBits(name, bits, (reader, tree) -> count);
+        }
+
+        /**
+         * Adds a variable amount of unsigned values of the same width to this builder
+         * The values will be stored as an {@code int[]} when {@code bits < 32}, or as a {@code long[]} otherwise.
+         *
+         * @param name The name of the property
+         * @param bits The width of every value {@code (1 - 64)}
+         * @param count A function that will return the amount of values based on the current {@link IBitReader}
+         *              and the current data tree
+         * @return The current builder
+         */
+        default Builder addRepeatedBits(String name, int bits, ToIntBiFunction<IBitReader, INamedTreePart> count) {
+            if (bits < 1 || bits > 64) {
+                throw new IllegalArgumentException("Invalid amount of bits: " + bits);
+            }
+            return addParameter(name, (reader, tree) -> {
+                int amount = count.applyAsInt(reader, tree);
+                if (amount < 0) {
+                    throw new DecodeException("Invalid amount of values: " + amount);
+                }
+                //Slice first, so a bogus amount fails before the array gets allocated
+                IBitReader values = reader.slice((long) amount * bits);
+                if (bits < 32) {
+                    int[] ret = new int[amount];
+                    values.readPacked(ret, 0, amount, bits);
+                    return ret;
+                }
+                long[] ret = new long[amount];
+                values.readPacked(ret, 0, amount, bits);
+                return ret;
+            });
+        }
+
+        /**
+         * Adds an unsigned LEB128 (protobuf) varint to this builder, the value will be stored as a {@link Long}
+         * See {@link IBitReader#readVarInt()}
+         *
+         * @param name The name of the property
+         * @return The current builder
+         */
+        default Builder addVarInt(String name) {
+            return addParameter(name, reader -> reader.readVarInt());
+        }
+
+        /**
+         * Adds a zigzag-encoded LEB128 varint to this builder, the value will be stored as a {@link Long}
+         * See {@link IBitReader#readZigZagVarInt()}
+         *
+         * @param name The name of the property
+         * @return The current builder
+         */
+        default Builder addZigZagVarInt(String name) {
+            return addParameter(name, reader -> reader.readZigZagVarInt());
+        }
+
+        /**
+         * Adds an unsigned Exp-Golomb code to this builder, the value will be stored as a {@link Long}
+         * See {@link IBitReader#readExpGolomb()}
+         *
+         * @param name The name of the property
+         * @return The current builder
+         */
+        default Builder addExpGolomb(String name) {
+            return addParameter(name, reader -> reader.readExpGolomb());
+        }
+
+        /**
+         * Adds a signed Exp-Golomb code to this builder, the value will be stored as a {@link Long}
+         * See {@link IBitReader#readSignedExpGolomb()}
+         *
+         * @param name The name of the property
+         * @return The current builder
+         */
+        default Builder addSignedExpGolomb(String name) {
+            return addParameter(name, reader -> reader.readSignedExpGolomb());
+        }
+
+        /**
+         * Adds an Elias-gamma code to this builder, the value will be stored as a {@link Long}
+         * See {@link IBitReader#readEliasGamma()}
+         *
+         * @param name The name of the property
+         * @return The current builder
+         */
+        default Builder addEliasGamma(String name) {
+            return addParameter(name, reader -> reader.readEliasGamma());
+        }
+
+        /**
+         * Adds a length-prefixed region to this builder, the value will be stored as an {@link IBitReader}
+         * limited to the region, see {@link IBitReader#slice(long)}
+         * The region can be decoded later on (and in parallel with other regions), this builder jumps straight past it.
+         *
+         * @param name The name of the property
+         * @param length A function that will return the length of the region in bytes based on the current {@link IBitReader}
+         *               and the current data tree
+         * @return The current builder
+         */
+        default Builder addRegion(String name, ToIntBiFunction<IBitReader, INamedTreePart> length) {
+            return addParameter(name, (reader, tree) -> reader.slice((long) length.applyAsInt(reader, tree) << 3));
+        }
+
+        /**
+         * Adds a length-prefixed nested parameter to this builder
+         * The prefix contains the length of the nested parameter in bytes, the nested specification
+         * will only be able to read from that region. This builder always continues after the region,
+         * regardless of how much of it was read by the nested specification.
+         *
+         * @param name The name to use for this nested parameter
+         * @param prefixBits The width of the length prefix {@code (1 - 31)}
+         * @param decoder The specification used to decode the region
+         * @return The current builder
+         */
+        default Builder addLengthPrefixed(String name, int prefixBits, IDynamicPacketSpec decoder) {
+            if (prefixBits < 1 || prefixBits > 31) {
+                throw new IllegalArgumentException("Invalid amount of bits: " + prefixBits);
+            }
+            return addLengthPrefixed(name, (reader, tree) -> (int) reader.readLong(prefixBits), (reader, tree) -> true, decoder);
+        }
+
+        /**
+         * Adds a length-prefixed nested parameter to this builder
+         * The nested specification will only be able to read from the region,
+         * this builder always continues after the region.
+         * If the predicate returns false, the region will be skipped without being decoded and null will be stored.
+         *
+         * @param name The name to use for this nested parameter
+         * @param length A function that will return the length of the region in bytes based on the current {@link IBitReader}
+         *               and the current data tree
+         * @param predicate The predicate used to check whether to decode the region or not,
+         *                  tested with a reader limited to the region
+         * @param decoder The specification used to decode the region
+         * @return The current builder
+         */
+        default Builder addLengthPrefixed(String name, ToIntBiFunction<IBitReader, INamedTreePart> length, BiPredicate<IBitReader, INamedTreePart> predicate, IDynamicPacketSpec decoder) {
+            return addParameter(name, (reader, tree) -> {
+                IBitReader region = reader.slice((long) length.applyAsInt(reader, tree) << 3);
+                if (predicate.test(region, tree)) {
+                    return decoder.decode(region);
+                }
+                return null;
+            });
+        }
+
+        /**
+         * Adds a fixed-width two's complement signed parameter to this builder
+         * The value will be stored as an {@link Integer} when {@code bits <= 32}, or as a {@link Long} otherwise.
+         *
+         * @param name The name of the property
+         * @param bits The width of the parameter {@code (1 - 64)}
+         * @return The current builder
+         */
+        default Builder addSigned(String name, int bits) {
+            if (bits < 1 || bits > 64) {
+                throw new IllegalArgumentException("Invalid amount of bits: " + bits);
+            }
+            if (bits <= 32) {
+                return addParameter(name, reader -> (int) reader.readSignedBits(bits));
+            }
+            return addParameter(name, reader -> reader.readSignedBits(bits));
+        }
+
+        /**
+         * Adds a single bit parameter to this builder, the value will be stored as a {@link Boolean}
+         *
+         * @param name The name of the property
+         * @return The current builder
+         */
+        default Builder addFlag(String name) {
+            return addParameter(name, IBitReader::readBit);
+        }
+
+        /**
+         * Adds a 32-bit IEEE 754 float parameter to this builder
+         *
+         * @param name The name of the property
+         * @return The current builder
+         */
+        default Builder addFloat(String name) {
+            return addParameter(name, IBitReader::readFloat);
+        }
+
+        /**
+         * Adds a 64-bit IEEE 754 double parameter to this builder
+         *
+         * @param name The name of the property
+         * @return The current builder
+         */
+        default Builder addDouble(String name) {
+            return addParameter(name, IBitReader::readDouble);
+        }
+
         /**
          * Reads data from the provided reader without processing it
          * Can be used for skipping reserved bits or skipping unimplemented parts of a packet
@@ -632,7 +1322,7 @@ public interface IDynamicPacketSpec {
         default Builder assertReader(Predicate<IBitReader> check, String errorMessage) {
             return addSpecialParameter((reader, tree) -> {
                 if (!check.test(reader)) {
-                    throw new AssertionError(errorMessage);
+                    throw new DecodeAssertionError(errorMessage);
                 }
             });
         }
@@ -647,7 +1337,7 @@ public interface IDynamicPacketSpec {
         default Builder assertData(Predicate<Function<String, Object>> check, String errorMessage) {
             return addSpecialParameter((reader, tree) -> {
                 if (!check.test(tree::get)) {
-                    throw new AssertionError(errorMessage);
+                    throw new DecodeAssertionError(errorMessage);
                 }
             });
         }
@@ -662,7 +1352,7 @@ public interface IDynamicPacketSpec {
         default Builder assertPreviousParameter(Predicate<Object> check, String errorMessage) {
             return addSpecialParameter((reader, tree) -> {
                 if (!check.test(tree.get(tree.getLastModifiedObject()))) {
-                    throw new AssertionError(errorMessage);
+                    throw new DecodeAssertionError(errorMessage);
                 }
             });
         }
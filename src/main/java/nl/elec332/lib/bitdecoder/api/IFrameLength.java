@@ -0,0 +1,20 @@
+package nl.elec332.lib.bitdecoder.api;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Determines the length of a frame (packet) in a buffer, EG: by reading a length prefix
+ */
+@FunctionalInterface
+public interface IFrameLength {
+
+    /**
+     * Determines the length of the frame starting at the provided index
+     *
+     * @param data The data
+     * @param byteIndex The index at which the frame starts
+     * @return The length of the frame in bytes
+     */
+    int getFrameLength(byte[] data, int byteIndex);
+
+}
@@ -0,0 +1,69 @@
+package nl.elec332.lib.bitdecoder.api;
+
+import nl.elec332.lib.java.tree.INamedTreePart;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * View over an undecoded packet, parameters only get decoded when they are accessed.
+ * Fixed-width parameters are read directly from the data, only the variable-width parameters before them get decoded.
+ * All other parameters are decoded (once) when one of them is accessed for the first time.
+ */
+public interface ILazyPacket {
+
+    /**
+     * Gets the value of a parameter, as it would be stored in a decoded tree
+     *
+     * @param name The name of the parameter
+     * @return The value of the parameter
+     */
+    Object get(String name);
+
+    /**
+     * Gets the value of a numeric parameter as an int, without boxing if it's located at a known offset
+     *
+     * @param name The name of the parameter
+     * @return The value of the parameter
+     */
+    default int getInt(String name) {
+        return (int) getLong(name);
+    }
+
+    /**
+     * Gets the value of a numeric parameter as a long, without boxing if it's located at a known offset
+     *
+     * @param name The name of the parameter
+     * @return The value of the parameter
+     */
+    default long getLong(String name) {
+        return ((Number) get(name)).longValue();
+    }
+
+    /**
+     * Gets the value of a numeric parameter as a double, without boxing if it's located at a known offset
+     *
+     * @param name The name of the parameter
+     * @return The value of the parameter
+     */
+    default double getDouble(String name) {
+        return ((Number) get(name)).doubleValue();
+    }
+
+    /**
+     * Gets the value of a flag parameter
+     *
+     * @param name The name of the parameter
+     * @return The value of the parameter
+     */
+    default boolean getBoolean(String name) {
+        return (Boolean) get(name);
+    }
+
+    /**
+     * Decodes the entire packet (once), and returns the decoded data
+     *
+     * @return The decoded packet data
+     */
+    INamedTreePart getTree();
+
+}
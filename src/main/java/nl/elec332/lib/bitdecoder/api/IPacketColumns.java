@@ -0,0 +1,99 @@
+package nl.elec332.lib.bitdecoder.api;
+
+import java.util.List;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Batch of decoded packets, stored as one primitive array (column) per parameter
+ */
+public interface IPacketColumns {
+
+    /**
+     * Returns the amount of decoded packets, which is also the length of every column
+     *
+     * @return The amount of decoded packets
+     */
+    int size();
+
+    /**
+     * Returns the names of all columns, in the order of the spec
+     *
+     * @return The names of all columns
+     */
+    List<String> getNames();
+
+    /**
+     * Returns the column of the parameter with the provided name,
+     * this will be an {@code int[]}, {@code long[]}, {@code boolean[]}, {@code float[]} or {@code double[]}
+     *
+     * @param name The name of the parameter
+     * @return The column of the parameter
+     * @throws IllegalArgumentException When there is no column with the provided name
+     */
+    Object getColumn(String name);
+
+    /**
+     * Returns the column of a parameter that is stored as an {@link Integer} in a tree
+     *
+     * @param name The name of the parameter
+     * @return The column of the parameter
+     * @throws IllegalArgumentException When there is no int column with the provided name
+     */
+    default int[] getInts(String name) {
+        return getColumn(name, int[].class);
+    }
+
+    /**
+     * Returns the column of a parameter that is stored as a {@link Long} in a tree
+     *
+     * @param name The name of the parameter
+     * @return The column of the parameter
+     * @throws IllegalArgumentException When there is no long column with the provided name
+     */
+    default long[] getLongs(String name) {
+        return getColumn(name, long[].class);
+    }
+
+    /**
+     * Returns the column of a flag parameter
+     *
+     * @param name The name of the parameter
+     * @return The column of the parameter
+     * @throws IllegalArgumentException When there is no boolean column with the provided name
+     */
+    default boolean[] getBooleans(String name) {
+        return getColumn(name, boolean[].class);
+    }
+
+    /**
+     * Returns the column of a float parameter
+     *
+     * @param name The name of the parameter
+     * @return The column of the parameter
+     * @throws IllegalArgumentException When there is no float column with the provided name
+     */
+    default float[] getFloats(String name) {
+        return getColumn(name, float[].class);
+    }
+
+    /**
+     * Returns the column of a double parameter
+     *
+     * @param name The name of the parameter
+     * @return The column of the parameter
+     * @throws IllegalArgumentException When there is no double column with the provided name
+     */
+    default double[] getDoubles(String name) {
+        return getColumn(name, double[].class);
+    }
+
+    private <T> T getColumn(String name, Class<T> type) {
+        Object ret = getColumn(name);
+        if (!type.isInstance(ret)) {
+            throw new IllegalArgumentException("Column " + name + " is not of type " + type.getSimpleName());
+        }
+        return type.cast(ret);
+    }
+
+}
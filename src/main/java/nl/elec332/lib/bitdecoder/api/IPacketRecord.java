@@ -0,0 +1,106 @@
+package nl.elec332.lib.bitdecoder.api;
+
+import nl.elec332.lib.java.tree.INamedTreePart;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Compact decoded packet, every parameter is stored in a slot with an index that gets assigned when the spec is built.
+ * Fixed-width parameters are stored in a {@code long[]} without boxing, all other values in a parallel {@code Object[]}.
+ * Slot indices can be looked up once using {@link IDynamicPacketSpec#slotOf(String)}, after which every access is an array load.
+ */
+public interface IPacketRecord {
+
+    /**
+     * Gets the slot index of a parameter
+     *
+     * @param name The name of the parameter
+     * @return The slot index of the parameter, or -1 if there is no parameter with the provided name
+     */
+    int slotOf(String name);
+
+    /**
+     * @return The amount of slots in this record
+     */
+    int getSlotCount();
+
+    /**
+     * @param slot The slot index
+     * @return The name of the parameter stored in the provided slot
+     */
+    String getName(int slot);
+
+    /**
+     * Checks whether a value was decoded for the provided slot,
+     * slots of branches that were not taken do not have a value
+     *
+     * @param slot The slot index
+     * @return Whether the slot has a value
+     */
+    boolean isPresent(int slot);
+
+    /**
+     * Gets the value of a slot, as it would be stored in a decoded tree.
+     * Nested specifications are stored as {@link IPacketRecord}s.
+     *
+     * @param slot The slot index
+     * @return The value of the slot, or null if it has no value
+     */
+    Object get(int slot);
+
+    /**
+     * Gets the value of a parameter, see {@link #get(int)}
+     *
+     * @param name The name of the parameter
+     * @return The value of the parameter, or null if it has no value
+     */
+    default Object get(String name) {
+        int slot = slotOf(name);
+        return slot < 0 ? null : get(slot);
+    }
+
+    /**
+     * Gets the value of a fixed-width parameter as a long, without boxing.
+     * Flags are returned as 0 or 1.
+     *
+     * @param slot The slot index
+     * @return The value of the slot, or 0 if it has no value
+     */
+    long getLong(int slot);
+
+    /**
+     * Gets the value of a fixed-width parameter as an int, without boxing
+     *
+     * @param slot The slot index
+     * @return The value of the slot, or 0 if it has no value
+     */
+    default int getInt(int slot) {
+        return (int) getLong(slot);
+    }
+
+    /**
+     * Gets the value of a fixed-width parameter as a double, without boxing
+     *
+     * @param slot The slot index
+     * @return The value of the slot, or 0 if it has no value
+     */
+    double getDouble(int slot);
+
+    /**
+     * Gets the value of a flag parameter
+     *
+     * @param slot The slot index
+     * @return The value of the slot
+     */
+    default boolean getBoolean(int slot) {
+        return getLong(slot) != 0;
+    }
+
+    /**
+     * Converts this record into a tree, equal to the tree that would have been decoded by the spec
+     *
+     * @return The packet data as a tree
+     */
+    INamedTreePart toTree();
+
+}
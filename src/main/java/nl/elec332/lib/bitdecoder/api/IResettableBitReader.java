@@ -0,0 +1,22 @@
+package nl.elec332.lib.bitdecoder.api;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Byte-array backed reader that can be moved to a new range of data,
+ * so it can be reused for every packet without allocating a new reader.
+ */
+public interface IResettableBitReader extends IBitReader {
+
+    /**
+     * Moves this reader to a new range of data.
+     * All properties will be cleared.
+     *
+     * @param data   The data
+     * @param offset The index from which to start reading
+     * @param length The amount of bytes that can be read
+     * @return This reader
+     */
+    IResettableBitReader reset(byte[] data, int offset, int length);
+
+}
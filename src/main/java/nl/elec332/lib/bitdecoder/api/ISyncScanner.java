@@ -0,0 +1,39 @@
+package nl.elec332.lib.bitdecoder.api;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Finds the next occurrence of a sync word (EG: a frame delimiter or magic number),
+ * used to resynchronize on corrupted or noisy data.
+ */
+public interface ISyncScanner {
+
+    /**
+     * Returns the length of the sync word in bits
+     *
+     * @return The length of the sync word in bits
+     */
+    long getBits();
+
+    /**
+     * Searches the provided data for the next sync word
+     *
+     * @param data The data
+     * @param fromBit The (absolute) bit position from which to start searching
+     * @param toBit The (exclusive) bit position at which the data ends
+     * @return The bit position of the first sync word that starts at or after {@code fromBit}
+     * and ends before {@code toBit}, or -1 if there is none
+     */
+    long indexOf(byte[] data, long fromBit, long toBit);
+
+    /**
+     * Moves the provided reader to the start of the next sync word,
+     * the sync word itself will not be consumed.
+     * When no sync word can be found, all remaining data will be consumed.
+     *
+     * @param reader The reader
+     * @return Whether a sync word has been found
+     */
+    boolean find(IBitReader reader);
+
+}
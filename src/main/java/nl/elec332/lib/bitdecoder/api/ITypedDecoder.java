@@ -0,0 +1,39 @@
+package nl.elec332.lib.bitdecoder.api;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Decodes a (sub)packet spec straight into a user-defined type, without building a tree
+ *
+ * @param <T> The type of the decoded objects
+ */
+public interface ITypedDecoder<T> {
+
+    /**
+     * Decodes an object given a byte array
+     *
+     * @param data The data
+     * @return The decoded object
+     */
+    default T decode(byte[] data) {
+        return decode(data, 0);
+    }
+
+    /**
+     * Decodes an object given a byte array and a byte-index
+     *
+     * @param data The data
+     * @param byteIndex The index from which to start reading
+     * @return The decoded object
+     */
+    T decode(byte[] data, int byteIndex);
+
+    /**
+     * Decodes an object from a {@link IBitReader}
+     *
+     * @param reader The reader
+     * @return The decoded object
+     */
+    T decode(IBitReader reader);
+
+}
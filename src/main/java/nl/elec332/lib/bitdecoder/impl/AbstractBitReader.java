@@ -0,0 +1,594 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.DecodeException;
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Base {@link IBitReader} that keeps a 64-bit big-endian cache word loaded from the backing storage,
+ * which allows every read of up to 64 bits to be served with a shift and a mask.
+ * Behaves exactly like {@link BitReader}.
+ */
+public abstract class AbstractBitReader implements IBitReader {
+
+    protected AbstractBitReader(int startIndex, int endIndex) {
+        this.limit = (long) endIndex << 3;
+        this.position = (long) startIndex << 3;
+        this.cachePosition = NO_CACHE;
+    }
+
+    private static final long NO_CACHE = Long.MIN_VALUE / 2;
+
+    private Map<String, Object> properties;
+    private long limit;
+    private long position;
+    private long cache;
+    private long cachePosition;
+
+    /**
+     * Loads 8 bytes in big-endian order, bytes past the end of the data must be read as zero
+     *
+     * @param index The index of the first byte
+     * @return The loaded word
+     */
+    protected abstract long loadWord(long index);
+
+    /**
+     * Loads a single byte, only called for indices before the end of the data
+     *
+     * @param index The index of the byte
+     * @return The loaded byte
+     */
+    protected abstract byte loadByte(long index);
+
+    /**
+     * Copies bytes from the backing storage
+     *
+     * @param index  The index of the first byte to copy
+     * @param dest   The destination array
+     * @param offset The start index in the destination array
+     * @param length The amount of bytes to copy
+     * @throws IndexOutOfBoundsException When the range exceeds the end of the data
+     */
+    protected abstract void copyBytes(long index, byte[] dest, int offset, int length);
+
+    /**
+     * Creates a view of bytes in the backing storage, used for zero-copy slices
+     *
+     * @param index  The index of the first byte
+     * @param length The amount of bytes, all of them are available
+     * @return A buffer (positioned at zero) viewing the requested range,
+     * or null if the backing storage cannot be viewed
+     */
+    protected ByteBuffer sliceBytes(long index, int length) {
+        return null;
+    }
+
+    /**
+     * Creates a view of a range of bits in the backing storage, used for zero-copy {@link #slice(long)}s
+     *
+     * @param position The absolute bit position of the first bit
+     * @param bits     The amount of bits, all of them are available
+     * @return A reader limited to the requested range, or null if the backing storage cannot be viewed
+     */
+    protected IBitReader sliceBits(long position, long bits) {
+        return null;
+    }
+
+    /**
+     * Attempts to make at least the requested amount of bits (counted from the current position) available,
+     * readers with a fixed amount of data can never make more data available.
+     *
+     * @param bits The amount of bits requested
+     * @return Whether the requested amount of bits is available now
+     */
+    protected boolean fill(long bits) {
+        return false;
+    }
+
+    /**
+     * Whether all data of this reader is in memory, meaning {@link #fill(long)} can never make more data available.
+     * Slices of memory-backed readers that exceed the available data fail instead of being copied.
+     *
+     * @return Whether all data of this reader is in memory
+     */
+    protected boolean isMemoryBacked() {
+        return true;
+    }
+
+    /**
+     * Moves the end of the available data, invalidates the cached word
+     *
+     * @param endIndex The (exclusive) index of the last available byte
+     */
+    protected void setEndIndex(long endIndex) {
+        this.limit = endIndex << 3;
+        this.cachePosition = NO_CACHE;
+    }
+
+    /**
+     * Moves this reader to a new range of data, clears the cached word and all properties
+     *
+     * @param startIndex The index of the first byte to read
+     * @param endIndex   The (exclusive) index of the last available byte
+     */
+    protected void reset(long startIndex, long endIndex) {
+        setEndIndex(endIndex);
+        this.position = startIndex << 3;
+        if (properties != null) {
+            properties.clear();
+        }
+    }
+
+    /**
+     * Limits this reader to a range of bits, clears the cached word and all properties
+     *
+     * @param startBit The absolute bit position of the first bit to read
+     * @param endBit   The (exclusive) absolute bit position of the last available bit
+     */
+    void resetBits(long startBit, long endBit) {
+        reset(startBit >>> 3, (endBit + 7) >>> 3);
+        this.limit = endBit;
+        this.position = startBit;
+    }
+
+    /**
+     * Moves this reader to another bit position within the current range, keeps all properties
+     *
+     * @param position The absolute bit position to move to
+     */
+    void seek(long position) {
+        this.position = position;
+    }
+
+    /**
+     * @return The (exclusive) absolute bit position of the last available bit
+     */
+    long getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return The absolute bit position of this reader
+     */
+    protected long getPosition() {
+        return position;
+    }
+
+    /**
+     * Attempts to make the requested amount of bits available (see {@link #fill(long)})
+     *
+     * @return The amount of bits that are available now
+     */
+    long available(long bits) {
+        if (bits > limit - position) {
+            fill(bits);
+        }
+        return limit - position;
+    }
+
+    @Override
+    public long readVarInt() {
+        long word = peekBuffered();
+        int length = VarCodes.varIntLength(word);
+        if (length == 0 || length << 3 > limit - position) {
+            return IBitReader.super.readVarInt();
+        }
+        position += length << 3;
+        return VarCodes.varInt(word, length);
+    }
+
+    @Override
+    public long readExpGolomb() {
+        long word = peekBuffered();
+        int length = VarCodes.expGolombLength(word);
+        if (length == 0 || length > limit - position) {
+            return IBitReader.super.readExpGolomb();
+        }
+        position += length;
+        return VarCodes.expGolomb(word, length);
+    }
+
+    @Override
+    public void skipBits(long bits) {
+        if (bits < 0) {
+            throw new IllegalArgumentException("Invalid amount of bits: " + bits);
+        }
+        while (bits > limit - position) {
+            bits -= limit - position;
+            position = limit;
+            if (!fill(Math.min(bits, 64)) && position == limit) {
+                throw new DecodeException("Not enough data available");
+            }
+        }
+        position += bits;
+    }
+
+    @Override
+    public IBitReader slice(long bits) {
+        if (bits < 0) {
+            throw new IllegalArgumentException("Invalid amount of bits: " + bits);
+        }
+        if (bits <= limit - position || fill(bits)) {
+            IBitReader ret = sliceBits(position, bits);
+            if (ret != null) {
+                position += bits;
+                return ret;
+            }
+        } else if (isMemoryBacked()) {
+            throw new DecodeException("Not enough data available");
+        }
+        return copySlice(bits);
+    }
+
+    /**
+     * Copies the next few bits into a new reader, used when the backing storage cannot be viewed
+     */
+    private IBitReader copySlice(long bits) {
+        if (bits > Integer.MAX_VALUE * 8L - 8) {
+            throw new DecodeException("Slice too large: " + bits + " bits");
+        }
+        //Keep the bit-index, so aligned reads stay aligned in the copy
+        int o = getBitIndex();
+        int length = (int) ((o + bits + 7) >>> 3);
+        //Grow the copy while reading, so a bogus length can't allocate much more than the data that actually exists
+        byte[] copy = new byte[Math.min(length, 4096)];
+        int head = (int) Math.min(bits, (8 - o) & 7);
+        if (head > 0) {
+            copy[0] = (byte) (readLong(head) << (8 - o - head));
+        }
+        int index = o == 0 ? 0 : 1;
+        long rest = bits - head;
+        int end = index + (int) (rest >>> 3);
+        while (index < end) {
+            if (index == copy.length) {
+                copy = Arrays.copyOf(copy, (int) Math.min(length, 2L * copy.length));
+            }
+            int count = Math.min(end, copy.length) - index;
+            readBytes(copy, index, count);
+            index += count;
+        }
+        if (copy.length < length) {
+            copy = Arrays.copyOf(copy, length);
+        }
+        int tail = (int) (rest & 7);
+        if (tail != 0) {
+            copy[length - 1] = (byte) (readLong(tail) << (8 - tail));
+        }
+        return new WordBitReader(copy, o, o + bits);
+    }
+
+    @Override
+    public int getBitIndex() {
+        return (int) (position & 7);
+    }
+
+    @Override
+    public int getByteIndex() {
+        return (int) (position >>> 3);
+    }
+
+    @Override
+    public void setProperty(String name, Object obj) {
+        if (properties == null) {
+            properties = new HashMap<>();
+        }
+        properties.put(name, obj);
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        return properties == null ? null : properties.get(name);
+    }
+
+    @Override
+    public short readByte() {
+        checkAvailable(8);
+        return (short) read(8);
+    }
+
+    @Override
+    public boolean isNextByteMatch(int value) {
+        if (position >= limit && !fill(8)) {
+            return false;
+        }
+        if (getBitIndex() != 0) {
+            throw new IllegalStateException();
+        }
+        if (limit - position < 8 && !fill(8)) {
+            return false;
+        }
+        if (loadByte(position >>> 3) == value) {
+            position += 8;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public byte[] peekBytes(int bytes) {
+        return peekBytes(bytes, false);
+    }
+
+    @Override
+    public byte[] peekBytesThrowing(int bytes) {
+        return peekBytes(bytes, true);
+    }
+
+    @Override
+    public long peekLong(int bits) {
+        if (bits > 64) {
+            throw new IllegalArgumentException("Too many bits, try another method");
+        }
+        checkAvailable(bits);
+        return peek(bits);
+    }
+
+    @Override
+    public boolean matches(long pattern, int bits) {
+        if (bits > 64) {
+            throw new IllegalArgumentException("Too many bits, try another method");
+        }
+        if (bits > limit - position && !fill(bits)) {
+            return false;
+        }
+        return peek(bits) == pattern;
+    }
+
+    @Override
+    public boolean matchesBytes(byte[] pattern) {
+        long bits = (long) pattern.length << 3;
+        if (bits > limit - position && !fill(bits)) {
+            return false;
+        }
+        for (int i = 0; i < pattern.length; i += 8) {
+            long mask = -1L << (64 - (Math.min(8, pattern.length - i) << 3));
+            if (((peekWord(position + ((long) i << 3)) ^ WordBitReader.loadWord(pattern, i, pattern.length)) & mask) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getCurrentByte() {
+        if (position >= limit && !fill(8)) {
+            return -1;
+        }
+        return Byte.toUnsignedInt(loadByte(position >>> 3));
+    }
+
+    private byte[] peekBytes(int bytes, boolean throwing) {
+        checkBlocked();
+        byte[] ret = new byte[bytes];
+        if (throwing && getBitIndex() != 0) {
+            throw new IllegalStateException();
+        }
+        if (((long) bytes << 3) > limit - position) {
+            fill((long) bytes << 3);
+        }
+        copyBytes(position >>> 3, ret, 0, bytes);
+        return ret;
+    }
+
+    @Override
+    public byte[] readBytes(int bytes) {
+        byte[] ret = new byte[bytes];
+        readBytes(ret, 0, bytes);
+        return ret;
+    }
+
+    @Override
+    public void readBytes(byte[] dest, int offset, int length) {
+        if (getBitIndex() == 0) {
+            int done = 0;
+            while (done < length) {
+                if (limit - position < 8) {
+                    checkAvailable(8);
+                }
+                int count = (int) Math.min((limit - position) >>> 3, length - done);
+                copyBytes(position >>> 3, dest, offset + done, count);
+                position += (long) count << 3;
+                done += count;
+            }
+        } else {
+            int i = 0;
+            for (; i + 8 <= length; i += 8) {
+                checkAvailable(64);
+                WordBitReader.storeWord(dest, offset + i, read(64));
+            }
+            for (; i < length; i++) {
+                checkAvailable(8);
+                dest[offset + i] = (byte) read(8);
+            }
+        }
+    }
+
+    @Override
+    public ByteBuffer readSlice(int bytes) {
+        long bits = (long) bytes << 3;
+        if (getBitIndex() == 0 && bytes > 0 && (bits <= limit - position || fill(bits))) {
+            ByteBuffer ret = sliceBytes(position >>> 3, bytes);
+            if (ret != null) {
+                position += bits;
+                return ret.asReadOnlyBuffer();
+            }
+        }
+        return ByteBuffer.wrap(readBytes(bytes)).asReadOnlyBuffer();
+    }
+
+    @Override
+    public byte readFewBits(int bits) {
+        if (bits > 6) {
+            throw new IllegalArgumentException("Too many bits, try another method");
+        }
+        checkBlocked();
+        checkAvailable(bits);
+        return (byte) read(bits);
+    }
+
+    @Override
+    public short readShortBits(int bits) {
+        if (bits > 12) {
+            throw new IllegalArgumentException("Too many bits, try another method");
+        }
+        checkAvailable(bits);
+        return (short) read(bits);
+    }
+
+    @Override
+    public int readBits(int bits) {
+        if (bits > 24) {
+            throw new IllegalArgumentException("Too many bits, try another method");
+        }
+        checkAvailable(bits);
+        return (int) read(bits);
+    }
+
+    @Override
+    public long readManyBits(int bits) {
+        if (bits > 48) {
+            throw new IllegalArgumentException("Too many bits, try another method");
+        }
+        checkAvailable(bits);
+        return read(bits);
+    }
+
+    @Override
+    public long readLong(int bits) {
+        if (bits > 64) {
+            throw new IllegalArgumentException("Too many bits, try another method");
+        }
+        checkAvailable(bits);
+        return read(bits);
+    }
+
+    @Override
+    public long readSignedBits(int bits) {
+        if (bits == 0) {
+            return 0;
+        }
+        return readLong(bits) << (64 - bits) >> (64 - bits);
+    }
+
+    @Override
+    public long readBitsLE(int bits) {
+        if (bits > 64) {
+            throw new IllegalArgumentException("Too many bits, try another method");
+        }
+        checkAvailable(bits);
+        if ((bits & 7) == 0) {
+            return bits == 0 ? 0 : Long.reverseBytes(read(bits)) >>> (64 - bits);
+        }
+        long ret = 0;
+        for (int shift = 0; shift < bits; shift += 8) {
+            ret |= read(Math.min(8, bits - shift)) << shift;
+        }
+        return ret;
+    }
+
+    @Override
+    public float readFloat() {
+        checkAvailable(32);
+        return Float.intBitsToFloat((int) read(32));
+    }
+
+    @Override
+    public double readDouble() {
+        checkAvailable(64);
+        return Double.longBitsToDouble(read(64));
+    }
+
+    @Override
+    public void finishByte() {
+        if (getBitIndex() == 0) {
+            return;
+        }
+        checkBlocked();
+        position = (position | 7) + 1;
+    }
+
+    /**
+     * Reads the requested amount of bits, the caller must make sure enough bits are available
+     */
+    private long read(int bits) {
+        if (bits <= 0) {
+            return 0;
+        }
+        long offset = position - cachePosition;
+        if (offset < 0 || offset + bits > 64) {
+            long index = position >>> 3;
+            cache = loadWord(index);
+            cachePosition = index << 3;
+            offset = position & 7;
+        }
+        int o = (int) offset;
+        long ret;
+        if (o + bits <= 64) {
+            ret = cache << o;
+        } else {
+            //Only happens for unaligned reads of more than 56 bits
+            long next = (cachePosition >>> 3) + 8;
+            ret = (cache << o) | (Byte.toUnsignedLong(next < ((limit + 7) >>> 3) ? loadByte(next) : 0) >>> (8 - o));
+        }
+        position += bits;
+        return ret >>> (64 - bits);
+    }
+
+    /**
+     * Peeks the requested amount of bits, the caller must make sure enough bits are available
+     */
+    private long peek(int bits) {
+        if (bits <= 0) {
+            return 0;
+        }
+        long offset = position - cachePosition;
+        if (offset >= 0 && offset + bits <= 64) {
+            return (cache << offset) >>> (64 - bits);
+        }
+        return peekWord(position) >>> (64 - bits);
+    }
+
+    /**
+     * Peeks the next 64 bits without trying to make more data available, bits that aren't available yet will be zero.
+     * Codes that run past the available bits must be read by the bytewise/bitwise implementations,
+     * which only request more data when they need it.
+     */
+    private long peekBuffered() {
+        int bits = (int) Math.max(0, Math.min(limit - position, 64));
+        return bits == 0 ? 0 : peek(bits) << (64 - bits);
+    }
+
+    /**
+     * Loads the 64 bits starting at the provided (absolute) bit position, bits past the end will be zero
+     */
+    private long peekWord(long position) {
+        long index = position >>> 3;
+        int o = (int) (position & 7);
+        long ret = loadWord(index) << o;
+        if (o != 0) {
+            long next = index + 8;
+            ret |= Byte.toUnsignedLong(next < ((limit + 7) >>> 3) ? loadByte(next) : 0) >>> (8 - o);
+        }
+        return ret;
+    }
+
+    private void checkAvailable(long bits) {
+        if (bits > limit - position && !fill(bits)) {
+            throw new DecodeException("Not enough data available");
+        }
+    }
+
+    private void checkBlocked() {
+        if (position >= limit && !fill(1)) {
+            throw new DecodeException("Not enough data available");
+        }
+    }
+
+}
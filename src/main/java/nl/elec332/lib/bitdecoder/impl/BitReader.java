@@ -1,29 +1,33 @@
 package nl.elec332.lib.bitdecoder.impl;
 
+import nl.elec332.lib.bitdecoder.api.DecodeException;
 import nl.elec332.lib.bitdecoder.api.IBitReader;
+import nl.elec332.lib.bitdecoder.api.IResettableBitReader;
 
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Created by Elec332 on 28-4-2020
  */
-public class BitReader implements IBitReader {
+public class BitReader implements IResettableBitReader {
 
     public BitReader(byte[] data, int startIndex) {
         this.data = data;
+        this.end = data.length;
         this.byteIndex = startIndex;
         this.bitIndex = 0;
         this.currentByte = Byte.toUnsignedInt(data[startIndex]);
         this.blocked = false;
-        this.properties = new HashMap<>();
     }
 
     private static final int[] PADDING;
 
-    private final byte[] data;
-    private final Map<String, Object> properties;
+    private byte[] data;
+    private Map<String, Object> properties;
 
+    private int end;
     private int byteIndex;
     private int currentByte;
     private int bitIndex;
@@ -41,12 +45,104 @@ public class BitReader implements IBitReader {
 
     @Override
     public void setProperty(String name, Object obj) {
+        if (properties == null) {
+            properties = new HashMap<>();
+        }
         properties.put(name, obj);
     }
 
     @Override
     public Object getProperty(String name) {
-        return properties.get(name);
+        return properties == null ? null : properties.get(name);
+    }
+
+    @Override
+    public BitReader reset(byte[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > data.length) {
+            throw new ArrayIndexOutOfBoundsException(offset + length);
+        }
+        this.data = data;
+        this.end = offset + length;
+        this.byteIndex = offset;
+        this.bitIndex = 0;
+        this.blocked = length == 0;
+        this.currentByte = blocked ? -1 : Byte.toUnsignedInt(data[offset]);
+        if (properties != null) {
+            properties.clear();
+        }
+        return this;
+    }
+
+    @Override
+    public long readVarInt() {
+        long position = getPosition();
+        long word = WordBitReader.loadBits(data, end, position);
+        int length = VarCodes.varIntLength(word);
+        if (length == 0 || ((long) length << 3) > ((long) end << 3) - position) {
+            return IResettableBitReader.super.readVarInt();
+        }
+        setPosition(position + (length << 3));
+        return VarCodes.varInt(word, length);
+    }
+
+    @Override
+    public long readExpGolomb() {
+        long position = getPosition();
+        long word = WordBitReader.loadBits(data, end, position);
+        int length = VarCodes.expGolombLength(word);
+        if (length == 0 || length > ((long) end << 3) - position) {
+            return IResettableBitReader.super.readExpGolomb();
+        }
+        setPosition(position + length);
+        return VarCodes.expGolomb(word, length);
+    }
+
+    @Override
+    public void skipBits(long bits) {
+        if (bits < 0) {
+            throw new IllegalArgumentException("Invalid amount of bits: " + bits);
+        }
+        long position = getPosition();
+        if (bits > ((long) end << 3) - position) {
+            throw new DecodeException("Not enough data available");
+        }
+        setPosition(position + bits);
+    }
+
+    @Override
+    public void readPacked(int[] dest, int offset, int count, int bits) {
+        long position = getPosition();
+        if (bits < 1 || bits > 32 || (long) count * bits > ((long) end << 3) - position) {
+            IResettableBitReader.super.readPacked(dest, offset, count, bits);
+            return;
+        }
+        WordBitReader.unpack(data, end, position, dest, offset, count, bits);
+        setPosition(position + (long) count * bits);
+    }
+
+    @Override
+    public void readPacked(long[] dest, int offset, int count, int bits) {
+        long position = getPosition();
+        if (bits < 1 || bits > 64 || (long) count * bits > ((long) end << 3) - position) {
+            IResettableBitReader.super.readPacked(dest, offset, count, bits);
+            return;
+        }
+        WordBitReader.unpack(data, end, position, dest, offset, count, bits);
+        setPosition(position + (long) count * bits);
+    }
+
+    @Override
+    public IBitReader slice(long bits) {
+        if (bits < 0) {
+            throw new IllegalArgumentException("Invalid amount of bits: " + bits);
+        }
+        long position = getPosition();
+        if (bits > ((long) end << 3) - position) {
+            throw new DecodeException("Not enough data available");
+        }
+        IBitReader ret = new WordBitReader(data, position, position + bits);
+        setPosition(position + bits);
+        return ret;
     }
 
     @Override
@@ -59,13 +155,43 @@ public class BitReader implements IBitReader {
         if (blocked) {
             return false;
         }
-        if (peekBytesThrowing(1)[0] == value) {
+        if (bitIndex != 0) {
+            throw new IllegalStateException();
+        }
+        if ((byte) currentByte == value) {
             readByte();
             return true;
         }
         return false;
     }
 
+    @Override
+    public long peekLong(int bits) {
+        if (bits > 64) {
+            throw new IllegalArgumentException("Too many bits, try another method");
+        }
+        if (bits <= 0) {
+            return 0;
+        }
+        return FieldProgram.extractRaw(data, end, getPosition(), FieldProgram.UNSIGNED_LONG, bits);
+    }
+
+    @Override
+    public boolean matches(long pattern, int bits) {
+        if (bits > 64) {
+            throw new IllegalArgumentException("Too many bits, try another method");
+        }
+        if (bits > ((long) end << 3) - getPosition()) {
+            return false;
+        }
+        return peekLong(bits) == pattern;
+    }
+
+    @Override
+    public boolean matchesBytes(byte[] pattern) {
+        return WordBitReader.matchesBytes(data, end, getPosition(), pattern);
+    }
+
     @Override
     public byte[] peekBytes(int bytes) {
         return peekBytes(bytes, false);
@@ -84,17 +210,53 @@ public class BitReader implements IBitReader {
     private byte[] peekBytes(int bytes, boolean throwing) {
         checkBlocked();
         byte[] ret = new byte[bytes];
-        if (bitIndex != 0) {
-            if (throwing) {
-                throw new IllegalStateException();
-            } else {
-                System.out.println("WARNING: bitindex is " + bitIndex);
-            }
+        if (throwing && bitIndex != 0) {
+            throw new IllegalStateException();
+        }
+        if (bytes > end - byteIndex) {
+            throw new ArrayIndexOutOfBoundsException(byteIndex + bytes);
         }
         System.arraycopy(data, byteIndex, ret, 0, bytes);
         return ret;
     }
 
+    @Override
+    public byte[] readBytes(int bytes) {
+        byte[] ret = new byte[bytes];
+        readBytes(ret, 0, bytes);
+        return ret;
+    }
+
+    @Override
+    public void readBytes(byte[] dest, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        if (bitIndex == 0) {
+            checkAligned(length);
+            System.arraycopy(data, byteIndex, dest, offset, length);
+            skipAligned(length);
+            return;
+        }
+        long position = getPosition();
+        if (((long) length << 3) > ((long) end << 3) - position) {
+            throw new DecodeException("Not enough data available");
+        }
+        WordBitReader.copyBits(data, position, dest, offset, length);
+        setPosition(position + ((long) length << 3));
+    }
+
+    @Override
+    public ByteBuffer readSlice(int bytes) {
+        if (bitIndex != 0 || bytes == 0) {
+            return IResettableBitReader.super.readSlice(bytes);
+        }
+        checkAligned(bytes);
+        ByteBuffer ret = ByteBuffer.wrap(data, byteIndex, bytes).slice().asReadOnlyBuffer();
+        skipAligned(bytes);
+        return ret;
+    }
+
     @Override
     public byte readFewBits(int bits) {
         if (bits > 6) {
@@ -103,6 +265,62 @@ public class BitReader implements IBitReader {
         return (byte) readFewBits_(bits);
     }
 
+    @Override
+    public long readManyBits(int bits) {
+        if (bits > 48) {
+            throw new IllegalArgumentException("Too many bits, try another method");
+        }
+        return readLong(bits);
+    }
+
+    @Override
+    public long readLong(int bits) {
+        if (bits > 64) {
+            throw new IllegalArgumentException("Too many bits, try another method");
+        }
+        long ret = 0;
+        while (bits > 0) {
+            checkBlocked();
+            int diff = 8 - bitIndex;
+            int read = Math.min(diff, bits);
+            ret = (ret << read) | ((currentByte >> (diff - read)) & PADDING[read]);
+            bitIndex += read;
+            bits -= read;
+            checkNextByte();
+        }
+        return ret;
+    }
+
+    @Override
+    public long readSignedBits(int bits) {
+        if (bits == 0) {
+            return 0;
+        }
+        return readLong(bits) << (64 - bits) >> (64 - bits);
+    }
+
+    @Override
+    public long readBitsLE(int bits) {
+        if (bits > 64) {
+            throw new IllegalArgumentException("Too many bits, try another method");
+        }
+        long ret = 0;
+        for (int shift = 0; shift < bits; shift += 8) {
+            ret |= (long) readFewBits_(Math.min(8, bits - shift)) << shift;
+        }
+        return ret;
+    }
+
+    @Override
+    public float readFloat() {
+        return Float.intBitsToFloat((int) readLong(32));
+    }
+
+    @Override
+    public double readDouble() {
+        return Double.longBitsToDouble(readLong(64));
+    }
+
     @Override
     public void finishByte() {
         if (bitIndex == 0) {
@@ -135,6 +353,45 @@ public class BitReader implements IBitReader {
         return (short) (ret & PADDING[bits]);
     }
 
+    long getPosition() {
+        return ((long) byteIndex << 3) + bitIndex;
+    }
+
+    void setPosition(long position) {
+        byteIndex = (int) (position >>> 3);
+        bitIndex = (int) (position & 7);
+        blocked = byteIndex >= end;
+        currentByte = blocked ? -1 : Byte.toUnsignedInt(data[byteIndex]);
+    }
+
+    byte[] getData() {
+        return data;
+    }
+
+    int getEndIndex() {
+        return end;
+    }
+
+    private void checkAligned(int bytes) {
+        checkBlocked();
+        if (bytes > end - byteIndex) {
+            throw new DecodeException("Not enough data available");
+        }
+    }
+
+    /**
+     * Moves a byte-aligned reader forward by the provided amount of bytes
+     */
+    private void skipAligned(int bytes) {
+        byteIndex += bytes;
+        if (byteIndex >= end) {
+            blocked = true;
+            currentByte = -1;
+            return;
+        }
+        currentByte = Byte.toUnsignedInt(data[byteIndex]);
+    }
+
     private void checkNextByte() {
         checkBlocked();
         if (bitIndex > 7) {
@@ -149,7 +406,7 @@ public class BitReader implements IBitReader {
         checkBlocked();
         byteIndex++;
         bitIndex = 0;
-        if (byteIndex >= data.length) {
+        if (byteIndex >= end) {
             blocked = true;
             currentByte = -1;
             return;
@@ -159,7 +416,7 @@ public class BitReader implements IBitReader {
 
     private void checkBlocked() {
         if (blocked) {
-            throw new IllegalStateException();
+            throw new DecodeException("Not enough data available");
         }
     }
 
@@ -0,0 +1,87 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Word-at-a-time reader for (direct or heap) {@link ByteBuffer}s.
+ * Reads from the position of the buffer up to its limit, without copying or modifying the buffer itself.
+ * Byte-indices are absolute indices in the buffer.
+ */
+public class ByteBufferBitReader extends AbstractBitReader {
+
+    public ByteBufferBitReader(ByteBuffer buffer) {
+        this(buffer, buffer.position());
+    }
+
+    public ByteBufferBitReader(ByteBuffer buffer, int startIndex) {
+        super(startIndex, buffer.limit());
+        if (startIndex < 0 || startIndex > buffer.limit()) {
+            throw new IndexOutOfBoundsException("Index: " + startIndex);
+        }
+        this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        this.end = buffer.limit();
+    }
+
+    /**
+     * Bit-precise view, used for slices
+     */
+    private ByteBufferBitReader(ByteBuffer buffer, long startBit, long endBit) {
+        super(0, 0);
+        this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        this.end = (int) ((endBit + 7) >>> 3);
+        resetBits(startBit, endBit);
+    }
+
+    private final ByteBuffer buffer;
+    private final int end;
+
+    @Override
+    protected long loadWord(long index) {
+        int i = (int) index;
+        if (i + 8 <= end) {
+            return buffer.getLong(i);
+        }
+        long ret = 0;
+        for (int j = i; j < i + 8; j++) {
+            ret = (ret << 8) | (j < end ? Byte.toUnsignedLong(buffer.get(j)) : 0);
+        }
+        return ret;
+    }
+
+    @Override
+    protected byte loadByte(long index) {
+        return buffer.get((int) index);
+    }
+
+    @Override
+    protected IBitReader sliceBits(long position, long bits) {
+        return new ByteBufferBitReader(buffer, position, position + bits);
+    }
+
+    @Override
+    protected ByteBuffer sliceBytes(long index, int length) {
+        int i = (int) index;
+        return buffer.duplicate().position(i).limit(i + length).slice();
+    }
+
+    @Override
+    protected void copyBytes(long index, byte[] dest, int offset, int length) {
+        int i = (int) index;
+        if (i + length > end) {
+            throw new IndexOutOfBoundsException("Index: " + (i + length));
+        }
+        if (buffer.hasArray()) {
+            System.arraycopy(buffer.array(), buffer.arrayOffset() + i, dest, offset, length);
+        } else {
+            for (int j = 0; j < length; j++) {
+                dest[offset + j] = buffer.get(i + j);
+            }
+        }
+    }
+
+}
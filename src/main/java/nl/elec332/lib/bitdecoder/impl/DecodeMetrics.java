@@ -0,0 +1,123 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IDecodeListener;
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Thread-safe {@link IDecodeListener} that counts packets, consumed data, failures
+ * and (optionally) the total decoding time per parameter.
+ * Use one instance per spec to get metrics per spec.
+ */
+public class DecodeMetrics implements IDecodeListener {
+
+    public DecodeMetrics() {
+        this(false);
+    }
+
+    public DecodeMetrics(boolean timeParameters) {
+        this.timeParameters = timeParameters;
+        this.packets = new LongAdder();
+        this.bits = new LongAdder();
+        this.bytes = new LongAdder();
+        this.failures = new LongAdder();
+        this.nanos = new ConcurrentHashMap<>();
+        this.counts = new ConcurrentHashMap<>();
+    }
+
+    private final boolean timeParameters;
+    private final LongAdder packets;
+    private final LongAdder bits;
+    private final LongAdder bytes;
+    private final LongAdder failures;
+    private final Map<String, LongAdder> nanos;
+    private final Map<String, LongAdder> counts;
+
+    @Override
+    public void onPacketDecoded(IDynamicPacketSpec spec, long bits) {
+        this.packets.increment();
+        this.bits.add(bits);
+        this.bytes.add((bits + 7) >>> 3);
+    }
+
+    @Override
+    public void onDecodeFailed(IDynamicPacketSpec spec, Throwable error) {
+        failures.increment();
+    }
+
+    @Override
+    public void onParameterDecoded(IDynamicPacketSpec spec, String name, long nanos) {
+        this.nanos.computeIfAbsent(name, s -> new LongAdder()).add(nanos);
+        this.counts.computeIfAbsent(name, s -> new LongAdder()).increment();
+    }
+
+    @Override
+    public boolean timeParameters() {
+        return timeParameters;
+    }
+
+    /**
+     * @return The amount of packets that have been decoded successfully
+     */
+    public long getPackets() {
+        return packets.sum();
+    }
+
+    /**
+     * @return The amount of bits consumed by successfully decoded packets
+     */
+    public long getBits() {
+        return bits.sum();
+    }
+
+    /**
+     * @return The amount of bytes consumed by successfully decoded packets, every packet is rounded up to whole bytes
+     */
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    /**
+     * @return The amount of packets that failed to decode
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return The total decoding time in nanoseconds per parameter
+     */
+    public Map<String, Long> getParameterNanos() {
+        return snapshot(nanos);
+    }
+
+    /**
+     * @return The amount of times every parameter has been decoded
+     */
+    public Map<String, Long> getParameterCounts() {
+        return snapshot(counts);
+    }
+
+    /**
+     * Resets all metrics
+     */
+    public void reset() {
+        packets.reset();
+        bits.reset();
+        bytes.reset();
+        failures.reset();
+        nanos.clear();
+        counts.clear();
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> map) {
+        return map.entrySet().stream().collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> e.getValue().sum()));
+    }
+
+}
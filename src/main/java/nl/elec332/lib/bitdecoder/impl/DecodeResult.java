@@ -0,0 +1,76 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+import nl.elec332.lib.bitdecoder.api.IDecodeResult;
+import nl.elec332.lib.java.tree.INamedTreePart;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ */
+final class DecodeResult implements IDecodeResult {
+
+    private DecodeResult(INamedTreePart tree, int byteIndex, int bitIndex, String path, String reason) {
+        this.tree = tree;
+        this.byteIndex = byteIndex;
+        this.bitIndex = bitIndex;
+        this.path = path;
+        this.reason = reason;
+    }
+
+    static DecodeResult success(INamedTreePart tree, IBitReader reader) {
+        return new DecodeResult(tree, reader.getByteIndex(), reader.getBitIndex(), "", null);
+    }
+
+    static DecodeResult failure(IBitReader reader, String path, String reason) {
+        return failure(reader.getByteIndex(), reader.getBitIndex(), path, reason);
+    }
+
+    static DecodeResult failure(int byteIndex, int bitIndex, String path, String reason) {
+        return new DecodeResult(null, byteIndex, bitIndex, path, reason == null ? "Unknown error" : reason);
+    }
+
+    private final INamedTreePart tree;
+    private final int byteIndex;
+    private final int bitIndex;
+    private final String path;
+    private final String reason;
+
+    @Override
+    public boolean isSuccess() {
+        return tree != null;
+    }
+
+    @Override
+    public INamedTreePart getTree() {
+        return tree;
+    }
+
+    @Override
+    public int getByteIndex() {
+        return byteIndex;
+    }
+
+    @Override
+    public int getBitIndex() {
+        return bitIndex;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public String toString() {
+        if (isSuccess()) {
+            return "Success at " + byteIndex + "." + bitIndex;
+        }
+        return "Failure at " + byteIndex + "." + bitIndex + (path.isEmpty() ? "" : " in " + path) + ": " + reason;
+    }
+
+}
@@ -1,14 +1,32 @@
 package nl.elec332.lib.bitdecoder.impl;
 
+import nl.elec332.lib.bitdecoder.api.DecodeAssertionError;
+import nl.elec332.lib.bitdecoder.api.DecodeException;
 import nl.elec332.lib.bitdecoder.api.IBitReader;
+import nl.elec332.lib.bitdecoder.api.IDecodeListener;
+import nl.elec332.lib.bitdecoder.api.IDecodeResult;
 import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.bitdecoder.api.IFrameLength;
+import nl.elec332.lib.bitdecoder.api.ILazyPacket;
+import nl.elec332.lib.bitdecoder.api.IPacketColumns;
+import nl.elec332.lib.bitdecoder.api.IPacketRecord;
+import nl.elec332.lib.bitdecoder.api.ISyncScanner;
+import nl.elec332.lib.bitdecoder.api.ITypedDecoder;
 import nl.elec332.lib.java.tree.INamedTreePart;
 import nl.elec332.lib.java.tree.NamedTree;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+import java.util.function.ToIntBiFunction;
 
 /**
  * Created by Elec332 on 29-4-2020
@@ -19,14 +37,102 @@ public class DynamicPacketSpec implements IDynamicPacketSpec {
         return new SpecBuilder(new ArrayList<>());
     }
 
-    private DynamicPacketSpec(List<BiPredicate<IBitReader, INamedTreePart>> readers, String name) {
-        this.readers = List.copyOf(readers);
+    private DynamicPacketSpec(List<BiPredicate<IBitReader, INamedTreePart>> readers, String name, boolean generateBytecode, IDecodeListener listener) {
+        this.listener = listener;
+        this.timed = listener != null && listener.timeParameters();
+        this.readers = timed ? List.copyOf(readers) : compile(readers, generateBytecode);
+        this.names = timed ? names(readers) : null;
+        this.layout = new FieldLayout(readers);
+        this.fields = fixedFields(readers);
+        this.record = RecordLayout.create(readers);
         this.name = name;
     }
 
+    /**
+     * @return A program with all parameters, or null if not all parameters are fixed-width parameters
+     */
+    private static FieldProgram fixedFields(List<BiPredicate<IBitReader, INamedTreePart>> readers) {
+        List<FieldProgram.Field> fields = new ArrayList<>();
+        for (var r : readers) {
+            if (!(r instanceof FieldProgram.Field)) {
+                return null;
+            }
+            fields.add((FieldProgram.Field) r);
+        }
+        return new FieldProgram(fields);
+    }
+
+    /**
+     * @return The names used to report the timings of every parameter
+     */
+    private static String[] names(List<BiPredicate<IBitReader, INamedTreePart>> readers) {
+        String[] ret = new String[readers.size()];
+        for (int i = 0; i < ret.length; i++) {
+            var r = readers.get(i);
+            String name = null;
+            if (r instanceof FieldProgram.Field) {
+                name = ((FieldProgram.Field) r).name;
+            } else if (r instanceof FieldProgram.Bytes) {
+                name = ((FieldProgram.Bytes) r).name;
+            } else if (r instanceof NamedParameter) {
+                name = ((NamedParameter<?>) r).name;
+            } else if (r instanceof SwitchParameter) {
+                name = ((SwitchParameter) r).getName();
+            }
+            ret[i] = name == null || name.isEmpty() ? "#" + i : name;
+        }
+        return ret;
+    }
+
+    /**
+     * Merges every run of fixed-width parameters into a single {@link FieldProgram},
+     * or into generated bytecode if requested
+     */
+    private static List<BiPredicate<IBitReader, INamedTreePart>> compile(List<BiPredicate<IBitReader, INamedTreePart>> readers, boolean generateBytecode) {
+        List<BiPredicate<IBitReader, INamedTreePart>> ret = new ArrayList<>();
+        List<FieldProgram.Field> fields = new ArrayList<>();
+        for (var r : readers) {
+            if (r instanceof FieldProgram.Field) {
+                fields.add((FieldProgram.Field) r);
+                continue;
+            }
+            compile(fields, generateBytecode, ret);
+            ret.add(r);
+        }
+        compile(fields, generateBytecode, ret);
+        return List.copyOf(ret);
+    }
+
+    private static void compile(List<FieldProgram.Field> fields, boolean generateBytecode, List<BiPredicate<IBitReader, INamedTreePart>> ret) {
+        if (fields.isEmpty()) {
+            return;
+        }
+        if (generateBytecode) {
+            for (int i = 0; i < fields.size(); i += FieldProgramGenerator.MAX_FIELDS) {
+                ret.add(FieldProgramGenerator.generate(fields.subList(i, Math.min(fields.size(), i + FieldProgramGenerator.MAX_FIELDS))));
+            }
+        } else {
+            ret.add(new FieldProgram(fields));
+        }
+        fields.clear();
+    }
+
     private final List<BiPredicate<IBitReader, INamedTreePart>> readers;
+    private final IDecodeListener listener;
+    private final boolean timed;
+    private final String[] names;
+    private final FieldLayout layout;
+    private final FieldProgram fields;
+    private final RecordLayout record;
     private final String name;
 
+    /**
+     * @return The steps this spec runs when decoding, after compilation
+     */
+    List<BiPredicate<IBitReader, INamedTreePart>> getReaders() {
+        return readers;
+    }
+
     @Override
     public boolean hasName() {
         return name != null;
@@ -39,7 +145,15 @@ public class DynamicPacketSpec implements IDynamicPacketSpec {
 
     @Override
     public INamedTreePart decode(byte[] data, int byteIndex) {
-        return decode(new BitReader(data, byteIndex));
+        return decode(new WordBitReader(data, byteIndex));
+    }
+
+    @Override
+    public INamedTreePart decode(ByteBuffer buffer) {
+        IBitReader reader = new ByteBufferBitReader(buffer);
+        INamedTreePart ret = decode(reader);
+        buffer.position(reader.getBitIndex() == 0 ? reader.getByteIndex() : reader.getByteIndex() + 1);
+        return ret;
     }
 
     @Override
@@ -49,15 +163,233 @@ public class DynamicPacketSpec implements IDynamicPacketSpec {
         return tree;
     }
 
+    @Override
+    public List<INamedTreePart> decodeSynced(byte[] data, int byteIndex, int length, ISyncScanner sync) {
+        List<INamedTreePart> ret = new ArrayList<>();
+        WordBitReader reader = null;
+        int end = byteIndex + length;
+        long position = (long) byteIndex << 3;
+        while ((position = sync.indexOf(data, position, (long) end << 3)) >= 0) {
+            int start = (int) (position >>> 3);
+            if (reader == null) {
+                reader = new WordBitReader(data, start);
+            }
+            reader.reset(data, start, end - start);
+            try {
+                reader.readLong((int) (position & 7));
+                ret.add(decode(reader));
+                position = Math.max(reader.getPosition(), position + 1);
+            } catch (RuntimeException | AssertionError e) {
+                position++;
+            }
+        }
+        return ret;
+    }
+
+    @Override
+    public INamedTreePart decodeNext(IBitReader reader, ISyncScanner sync) {
+        if (!canSeek(reader)) {
+            return IDynamicPacketSpec.super.decodeNext(reader, sync);
+        }
+        while (sync.find(reader)) {
+            long start = bitPosition(reader);
+            try {
+                return decode(reader);
+            } catch (RuntimeException | AssertionError e) {
+                //Same as decodeSynced, try again one bit after the start of the corrupted packet
+                seek(reader, start + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Whether the provided reader can move back to an earlier position, see {@link #seek(IBitReader, long)}
+     */
+    private static boolean canSeek(IBitReader reader) {
+        return reader instanceof BitReader || reader instanceof AbstractBitReader && ((AbstractBitReader) reader).isMemoryBacked();
+    }
+
+    private static void seek(IBitReader reader, long position) {
+        if (reader instanceof BitReader) {
+            ((BitReader) reader).setPosition(position);
+        } else {
+            ((AbstractBitReader) reader).seek(position);
+        }
+    }
+
+    @Override
+    public ILazyPacket decodeLazy(byte[] data, int byteIndex) {
+        return new LazyPacket(this, layout, data, byteIndex);
+    }
+
+    @Override
+    public long fixedSizeBits() {
+        return layout.complete ? layout.sizeBits : -1;
+    }
+
+    @Override
+    public long getBitOffset(String name) {
+        int i = layout.leadingIndexOf(name);
+        return i < 0 ? -1 : layout.offsets[i];
+    }
+
+    @Override
+    public Object extract(byte[] data, int byteIndex, String name) {
+        int i = layout.leadingIndexOf(name);
+        if (i < 0) {
+            throw new IllegalArgumentException("Parameter " + name + " is not located at a fixed offset");
+        }
+        return layout.extract(data, data.length, (long) byteIndex << 3, i);
+    }
+
+    @Override
+    public int slotOf(String name) {
+        return record == null ? -1 : record.indexOf(name);
+    }
+
+    @Override
+    public IPacketRecord decodeRecord(byte[] data, int byteIndex) {
+        return decodeRecord(new WordBitReader(data, byteIndex));
+    }
+
+    @Override
+    public IPacketRecord decodeRecord(IBitReader reader) {
+        if (record == null) {
+            throw new IllegalStateException("Spec defines a parameter more than once with different types");
+        }
+        PacketRecord ret = new PacketRecord(record);
+        try {
+            if (listener == null) {
+                record.decode(reader, ret, null);
+                return ret;
+            }
+            long start = bitPosition(reader);
+            try {
+                record.decode(reader, ret, null);
+            } catch (RuntimeException | Error e) {
+                listener.onDecodeFailed(this, e);
+                throw e;
+            }
+            listener.onPacketDecoded(this, bitPosition(reader) - start);
+            return ret;
+        } catch (DecodeException e) {
+            throw name == null ? e : e.addParent(name);
+        } catch (DecodeAssertionError e) {
+            throw name == null ? e : e.addParent(name);
+        }
+    }
+
+    RecordLayout getRecordLayout() {
+        return record;
+    }
+
+    @Override
+    public IDecodeResult tryDecode(byte[] data, int byteIndex) {
+        if (byteIndex < 0 || byteIndex >= data.length) {
+            return DecodeResult.failure(byteIndex, 0, name == null ? "" : name, "Not enough data available");
+        }
+        return tryDecode(new WordBitReader(data, byteIndex));
+    }
+
+    @Override
+    public IDecodeResult tryDecode(IBitReader reader) {
+        INamedTreePart tree = new NamedTree();
+        try {
+            decode(reader, tree);
+            return DecodeResult.success(tree, reader);
+        } catch (DecodeException e) {
+            return DecodeResult.failure(reader, e.getPath(), e.getMessage());
+        } catch (DecodeAssertionError e) {
+            return DecodeResult.failure(reader, e.getPath(), e.getMessage());
+        } catch (RuntimeException | AssertionError e) {
+            return DecodeResult.failure(reader, name == null ? "" : name, e.toString());
+        }
+    }
+
     @Override
     public void decode(IBitReader reader, INamedTreePart tree) {
-        for (var r : readers) {
-            if (!r.test(reader, tree)) {
-                break;
+        try {
+            if (listener != null) {
+                decodeInstrumented(reader, tree);
+                return;
+            }
+            for (var r : readers) {
+                if (!r.test(reader, tree)) {
+                    break;
+                }
             }
+        } catch (DecodeException e) {
+            throw name == null ? e : e.addParent(name);
+        } catch (DecodeAssertionError e) {
+            throw name == null ? e : e.addParent(name);
         }
     }
 
+    private void decodeInstrumented(IBitReader reader, INamedTreePart tree) {
+        long start = bitPosition(reader);
+        try {
+            for (int i = 0; i < readers.size(); i++) {
+                boolean ret;
+                if (timed) {
+                    long time = System.nanoTime();
+                    ret = readers.get(i).test(reader, tree);
+                    listener.onParameterDecoded(this, names[i], System.nanoTime() - time);
+                } else {
+                    ret = readers.get(i).test(reader, tree);
+                }
+                if (!ret) {
+                    break;
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            listener.onDecodeFailed(this, e);
+            throw e;
+        }
+        listener.onPacketDecoded(this, bitPosition(reader) - start);
+    }
+
+    /**
+     * @return The absolute bit position of the provided reader, {@link AbstractBitReader}s don't wrap after 2GB of data
+     */
+    private static long bitPosition(IBitReader reader) {
+        if (reader instanceof AbstractBitReader) {
+            return ((AbstractBitReader) reader).getPosition();
+        }
+        return ((long) reader.getByteIndex() << 3) + reader.getBitIndex();
+    }
+
+    @Override
+    public List<INamedTreePart> decodeParallel(byte[] data, int[] offsets, int endIndex, Executor executor) {
+        return ParallelDecoder.decode(this, data, offsets, endIndex, executor);
+    }
+
+    @Override
+    public <T> ITypedDecoder<T> bind(MethodHandles.Lookup lookup, Class<T> type) {
+        return TypedDecoder.forType(checkFixed(), lookup, type);
+    }
+
+    @Override
+    public <T> ITypedDecoder<T> bind(MethodHandle factory) {
+        return TypedDecoder.forFactory(checkFixed(), factory);
+    }
+
+    @Override
+    public IPacketColumns decodeColumns(byte[] data, int byteIndex, int count, IFrameLength frameLength) {
+        return PacketColumns.decode(checkFixed(), data, byteIndex, count, frameLength);
+    }
+
+    private FieldProgram checkFixed() {
+        if (fields == null) {
+            throw new IllegalStateException("Spec contains parameters that are not fixed-width parameters");
+        }
+        return fields;
+    }
+
+    /**
+     * Builder that adds fixed-width parameters as {@link FieldProgram.Field}s instead of parameter functions,
+     * so every run of them gets compiled into a flat program when the spec gets built
+     */
     private static class SpecBuilder implements Builder {
 
         private SpecBuilder(List<BiPredicate<IBitReader, INamedTreePart>> readers) {
@@ -66,6 +398,8 @@ public class DynamicPacketSpec implements IDynamicPacketSpec {
 
         private final List<BiPredicate<IBitReader, INamedTreePart>> readers;
         private String name = null;
+        private boolean generateBytecode = false;
+        private IDecodeListener listener = null;
 
         @Override
         public Builder setName(String name) {
@@ -76,6 +410,18 @@ public class DynamicPacketSpec implements IDynamicPacketSpec {
             return this;
         }
 
+        @Override
+        public Builder setGenerateBytecode(boolean generate) {
+            this.generateBytecode = generate;
+            return this;
+        }
+
+        @Override
+        public Builder setListener(IDecodeListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
         @Override
         public Builder with(Builder other) {
             if (other instanceof SpecBuilder) {
@@ -92,6 +438,78 @@ public class DynamicPacketSpec implements IDynamicPacketSpec {
             return addNestedParameter(name, predicate, builder.build());
         }
 
+        @Override
+        public <T> Builder addParameter(String name, BiFunction<IBitReader, INamedTreePart, T> decoder) {
+            this.readers.add(new NamedParameter<>(name, decoder));
+            return this;
+        }
+
+        @Override
+        public Builder addSwitch(String name, ToIntBiFunction<IBitReader, INamedTreePart> keyReader, Map<Integer, IDynamicPacketSpec> cases, IDynamicPacketSpec defaultCase) {
+            this.readers.add(new SwitchParameter(name, keyReader, cases, defaultCase));
+            return this;
+        }
+
+        @Override
+        public Builder addFieldChoice(String field, LongPredicate predicate, IDynamicPacketSpec whenTrue, IDynamicPacketSpec whenFalse) {
+            this.readers.add(new FieldChoice(field, predicate, whenTrue, whenFalse));
+            return this;
+        }
+
+        @Override
+        public Builder addUnsigned(String name, int bits) {
+            if (bits < 1 || bits > 64) {
+                throw new IllegalArgumentException("Invalid amount of bits: " + bits);
+            }
+            return addField(name, bits < 32 ? FieldProgram.UNSIGNED_INT : FieldProgram.UNSIGNED_LONG, bits);
+        }
+
+        @Override
+        public Builder addSigned(String name, int bits) {
+            if (bits < 1 || bits > 64) {
+                throw new IllegalArgumentException("Invalid amount of bits: " + bits);
+            }
+            return addField(name, bits <= 32 ? FieldProgram.SIGNED_INT : FieldProgram.SIGNED_LONG, bits);
+        }
+
+        @Override
+        public Builder addFixedBytes(String name, int count) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Invalid amount of bytes: " + count);
+            }
+            this.readers.add(new FieldProgram.Bytes(name, count, false));
+            return this;
+        }
+
+        @Override
+        public Builder addSlice(String name, int count) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Invalid amount of bytes: " + count);
+            }
+            this.readers.add(new FieldProgram.Bytes(name, count, true));
+            return this;
+        }
+
+        @Override
+        public Builder addFlag(String name) {
+            return addField(name, FieldProgram.FLAG, 1);
+        }
+
+        @Override
+        public Builder addFloat(String name) {
+            return addField(name, FieldProgram.FLOAT, 32);
+        }
+
+        @Override
+        public Builder addDouble(String name) {
+            return addField(name, FieldProgram.DOUBLE, 64);
+        }
+
+        private Builder addField(String name, int type, int bits) {
+            this.readers.add(new FieldProgram.Field(name, type, bits));
+            return this;
+        }
+
         @Override
         public Builder shouldContinue(BiPredicate<IBitReader, INamedTreePart> checker) {
             this.readers.add(checker);
@@ -100,12 +518,16 @@ public class DynamicPacketSpec implements IDynamicPacketSpec {
 
         @Override
         public Builder copy() {
-            return new SpecBuilder(new ArrayList<>(readers));
+            SpecBuilder ret = new SpecBuilder(new ArrayList<>(readers));
+            ret.name = name;
+            ret.generateBytecode = generateBytecode;
+            ret.listener = listener;
+            return ret;
         }
 
         @Override
         public IDynamicPacketSpec build() {
-            return new DynamicPacketSpec(readers, name);
+            return new DynamicPacketSpec(readers, name, generateBytecode, listener);
         }
 
         @Override
@@ -115,4 +537,25 @@ public class DynamicPacketSpec implements IDynamicPacketSpec {
 
     }
 
+    /**
+     * Parameter that keeps its name, so it can be reported
+     */
+    static final class NamedParameter<T> implements BiPredicate<IBitReader, INamedTreePart> {
+
+        private NamedParameter(String name, BiFunction<IBitReader, INamedTreePart, T> decoder) {
+            this.name = name;
+            this.decoder = decoder;
+        }
+
+        final String name;
+        final BiFunction<IBitReader, INamedTreePart, T> decoder;
+
+        @Override
+        public boolean test(IBitReader reader, INamedTreePart tree) {
+            tree.put(name, decoder.apply(reader, tree.getImmutable()));
+            return true;
+        }
+
+    }
+
 }
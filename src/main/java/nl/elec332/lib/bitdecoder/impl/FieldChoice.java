@@ -0,0 +1,45 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.java.tree.INamedTreePart;
+
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.LongPredicate;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Branch based on the value of an earlier fixed-width parameter.
+ * When decoding into a record the value is read from its slot, see {@link RecordLayout}.
+ */
+final class FieldChoice implements BiPredicate<IBitReader, INamedTreePart> {
+
+    FieldChoice(String field, LongPredicate predicate, IDynamicPacketSpec whenTrue, IDynamicPacketSpec whenFalse) {
+        this.field = Objects.requireNonNull(field);
+        this.predicate = Objects.requireNonNull(predicate);
+        this.whenTrue = whenTrue;
+        this.whenFalse = whenFalse;
+    }
+
+    final String field;
+    final LongPredicate predicate;
+    final IDynamicPacketSpec whenTrue;
+    final IDynamicPacketSpec whenFalse;
+
+    @Override
+    public boolean test(IBitReader reader, INamedTreePart tree) {
+        Object value = tree.get(field);
+        IDynamicPacketSpec choice = predicate.test(value instanceof Boolean ? ((Boolean) value ? 1 : 0) : ((Number) value).longValue()) ? whenTrue : whenFalse;
+        if (choice != null) {
+            if (choice.hasName()) {
+                tree.put(choice.getName(), choice.decode(reader));
+            } else {
+                choice.decode(reader, tree);
+            }
+        }
+        return true;
+    }
+
+}
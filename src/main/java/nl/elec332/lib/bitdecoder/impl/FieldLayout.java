@@ -0,0 +1,174 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.DecodeException;
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+import nl.elec332.lib.java.tree.INamedTreePart;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Static bit layout of the fixed-width parameters of a spec.
+ * The parameters are split into segments, every segment is a run of fixed-width parameters followed by a single
+ * variable-width step (except for the last segment). Every parameter is located at a known bit offset from the start of its segment,
+ * so it can be extracted directly from the data once the start of its segment is known.
+ */
+final class FieldLayout {
+
+    FieldLayout(List<BiPredicate<IBitReader, INamedTreePart>> readers) {
+        int size = (int) readers.stream().filter(FieldLayout::isFixed).count();
+        this.names = new String[size];
+        this.types = new int[size];
+        this.bits = new long[size];
+        this.offsets = new long[size];
+        this.segments = new int[size];
+        this.index = new HashMap<>();
+        List<BiPredicate<IBitReader, INamedTreePart>> steps = new ArrayList<>();
+        long[] segmentBits = new long[readers.size() + 1];
+        long offset = 0;
+        int i = 0;
+        for (BiPredicate<IBitReader, INamedTreePart> reader : readers) {
+            if (!isFixed(reader)) {
+                segmentBits[steps.size()] = offset;
+                steps.add(reader);
+                offset = 0;
+                continue;
+            }
+            if (reader instanceof FieldProgram.Field) {
+                FieldProgram.Field field = (FieldProgram.Field) reader;
+                names[i] = field.name;
+                types[i] = field.type;
+                bits[i] = field.bits;
+            } else {
+                FieldProgram.Bytes field = (FieldProgram.Bytes) reader;
+                names[i] = field.name;
+                types[i] = field.slice ? FieldProgram.SLICE : FieldProgram.BYTES;
+                bits[i] = (long) field.count << 3;
+            }
+            offsets[i] = offset;
+            segments[i] = steps.size();
+            index.put(names[i], i);
+            offset += bits[i];
+            i++;
+        }
+        segmentBits[steps.size()] = offset;
+        this.steps = List.copyOf(steps);
+        this.segmentBits = Arrays.copyOf(segmentBits, steps.size() + 1);
+        this.sizeBits = segmentBits[0];
+        this.complete = steps.isEmpty();
+    }
+
+    final String[] names;
+    final int[] types;
+    final long[] bits;
+    /**
+     * Bit offset of every parameter from the start of its segment
+     */
+    final long[] offsets;
+    final int[] segments;
+    /**
+     * The variable-width step at the end of every segment, except the last one
+     */
+    final List<BiPredicate<IBitReader, INamedTreePart>> steps;
+    /**
+     * The size of the fixed-width parameters of every segment, the step of a segment starts at this offset
+     */
+    final long[] segmentBits;
+    /**
+     * The size of the first segment
+     */
+    final long sizeBits;
+    final boolean complete;
+    private final Map<String, Integer> index;
+
+    private static boolean isFixed(BiPredicate<IBitReader, INamedTreePart> reader) {
+        return reader instanceof FieldProgram.Field || reader instanceof FieldProgram.Bytes;
+    }
+
+    /**
+     * @return The index of the parameter with the provided name, or -1 if it isn't part of this layout
+     */
+    int indexOf(String name) {
+        Integer ret = index.get(name);
+        return ret == null ? -1 : ret;
+    }
+
+    /**
+     * @return The index of the parameter with the provided name, or -1 if it isn't located at a fixed offset from the start of the packet
+     */
+    int leadingIndexOf(String name) {
+        int ret = indexOf(name);
+        return ret < 0 || segments[ret] != 0 ? -1 : ret;
+    }
+
+    /**
+     * Extracts all parameters of a segment into the provided tree
+     *
+     * @param start The bit position at which the segment starts
+     */
+    void extractSegment(byte[] data, int end, long start, int segment, INamedTreePart tree) {
+        for (int i = 0; i < names.length; i++) {
+            if (segments[i] == segment) {
+                tree.put(names[i], extract(data, end, start, i));
+            }
+        }
+    }
+
+    /**
+     * Extracts a parameter from a segment starting at the provided bit position,
+     * the value is the same as it would be stored in a decoded tree
+     */
+    Object extract(byte[] data, int end, long start, int i) {
+        if (types[i] == FieldProgram.BYTES) {
+            return extractBytes(data, end, start + offsets[i], (int) (bits[i] >>> 3));
+        }
+        if (types[i] == FieldProgram.SLICE) {
+            return extractSlice(data, end, start + offsets[i], (int) (bits[i] >>> 3));
+        }
+        return FieldProgram.toObject(types[i], extractRaw(data, end, start, i));
+    }
+
+    /**
+     * Extracts the raw bits of a (non-bytes) parameter from a segment starting at the provided bit position,
+     * see {@link FieldProgram#extractRaw(byte[], int, long, int, int)}
+     */
+    long extractRaw(byte[] data, int end, long start, int i) {
+        if (types[i] == FieldProgram.BYTES || types[i] == FieldProgram.SLICE) {
+            throw new ClassCastException("Parameter " + names[i] + " is not numeric");
+        }
+        return FieldProgram.extractRaw(data, end, start + offsets[i], types[i], (int) bits[i]);
+    }
+
+    private static ByteBuffer extractSlice(byte[] data, int end, long position, int count) {
+        if ((position & 7) != 0) {
+            return ByteBuffer.wrap(extractBytes(data, end, position, count)).asReadOnlyBuffer();
+        }
+        if (position < 0 || position + ((long) count << 3) > (long) end << 3) {
+            throw new DecodeException("Not enough data available");
+        }
+        return ByteBuffer.wrap(data, (int) (position >>> 3), count).slice().asReadOnlyBuffer();
+    }
+
+    private static byte[] extractBytes(byte[] data, int end, long position, int count) {
+        if (position < 0 || position + ((long) count << 3) > (long) end << 3) {
+            throw new DecodeException("Not enough data available");
+        }
+        byte[] ret = new byte[count];
+        if ((position & 7) == 0) {
+            System.arraycopy(data, (int) (position >>> 3), ret, 0, count);
+        } else {
+            for (int i = 0; i < count; i++) {
+                ret[i] = (byte) FieldProgram.extractRaw(data, end, position + ((long) i << 3), FieldProgram.UNSIGNED_INT, 8);
+            }
+        }
+        return ret;
+    }
+
+}
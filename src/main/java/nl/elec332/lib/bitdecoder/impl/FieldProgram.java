@@ -0,0 +1,219 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.DecodeException;
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+import nl.elec332.lib.java.tree.INamedTreePart;
+
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Flat program for a run of fixed-width parameters.
+ * Every instruction is encoded as {@code (type << 8) | bits} and executed by a single interpreter loop,
+ * instead of going through several layers of wrapping lambdas per parameter.
+ */
+final class FieldProgram implements BiPredicate<IBitReader, INamedTreePart> {
+
+    FieldProgram(List<Field> fields) {
+        this.code = new int[fields.size()];
+        this.names = new String[fields.size()];
+        for (int i = 0; i < code.length; i++) {
+            Field field = fields.get(i);
+            this.code[i] = (field.type << 8) | field.bits;
+            this.names[i] = field.name;
+        }
+    }
+
+    static final int UNSIGNED_INT = 0;
+    static final int UNSIGNED_LONG = 1;
+    static final int SIGNED_INT = 2;
+    static final int SIGNED_LONG = 3;
+    static final int FLAG = 4;
+    static final int FLOAT = 5;
+    static final int DOUBLE = 6;
+    /**
+     * Fixed amount of bytes, only used by {@link FieldLayout}s as these never end up in a program
+     */
+    static final int BYTES = 7;
+    /**
+     * Fixed amount of bytes stored as a {@link java.nio.ByteBuffer} slice, only used by {@link FieldLayout}s
+     */
+    static final int SLICE = 8;
+
+    final int[] code;
+    final String[] names;
+
+    @Override
+    public boolean test(IBitReader reader, INamedTreePart tree) {
+        final int[] code = this.code;
+        final String[] names = this.names;
+        for (int i = 0; i < code.length; i++) {
+            tree.put(names[i], read(reader, code[i] >>> 8, code[i] & 0xFF));
+        }
+        return true;
+    }
+
+    static void put(INamedTreePart tree, String name, Object value) {
+        tree.put(name, value);
+    }
+
+    static Object read(IBitReader reader, int type, int bits) {
+        switch (type) {
+            case UNSIGNED_INT:
+                return (int) reader.readLong(bits);
+            case UNSIGNED_LONG:
+                return reader.readLong(bits);
+            case SIGNED_INT:
+                return (int) reader.readSignedBits(bits);
+            case SIGNED_LONG:
+                return reader.readSignedBits(bits);
+            case FLAG:
+                return reader.readBit();
+            case FLOAT:
+                return reader.readFloat();
+            case DOUBLE:
+                return reader.readDouble();
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Reads the raw bits of a parameter, floats and doubles are returned as their IEEE 754 bit pattern
+     * and flags as 0 or 1
+     */
+    static long readRaw(IBitReader reader, int type, int bits) {
+        switch (type) {
+            case UNSIGNED_INT:
+            case UNSIGNED_LONG:
+            case FLOAT:
+            case DOUBLE:
+                return reader.readLong(bits);
+            case SIGNED_INT:
+            case SIGNED_LONG:
+                return reader.readSignedBits(bits);
+            case FLAG:
+                return reader.readBit() ? 1 : 0;
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Extracts the raw bits of a parameter at a known bit offset, without a reader.
+     * Works the same as {@link #readRaw(IBitReader, int, int)}
+     *
+     * @param data     The data
+     * @param end      The (exclusive) end index of the data
+     * @param position The absolute bit position of the parameter
+     */
+    static long extractRaw(byte[] data, int end, long position, int type, int bits) {
+        if (position < 0 || position + bits > (long) end << 3) {
+            throw new DecodeException("Not enough data available");
+        }
+        int index = (int) (position >>> 3);
+        int o = (int) (position & 7);
+        long ret = WordBitReader.loadWord(data, index, end) << o;
+        if (o + bits > 64) {
+            ret |= Byte.toUnsignedLong(data[index + 8]) >>> (8 - o);
+        }
+        ret >>>= 64 - bits;
+        if (type == SIGNED_INT || type == SIGNED_LONG) {
+            return ret << (64 - bits) >> (64 - bits);
+        }
+        return ret;
+    }
+
+    /**
+     * Converts raw bits (as returned by {@link #readRaw(IBitReader, int, int)}) to the value that would be stored in a tree
+     */
+    static Object toObject(int type, long raw) {
+        switch (type) {
+            case UNSIGNED_INT:
+            case SIGNED_INT:
+                return (int) raw;
+            case UNSIGNED_LONG:
+            case SIGNED_LONG:
+                return raw;
+            case FLAG:
+                return raw != 0;
+            case FLOAT:
+                return Float.intBitsToFloat((int) raw);
+            case DOUBLE:
+                return Double.longBitsToDouble(raw);
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * @return The Java type of the values of the provided parameter type
+     */
+    static Class<?> javaType(int type) {
+        switch (type) {
+            case UNSIGNED_INT:
+            case SIGNED_INT:
+                return int.class;
+            case UNSIGNED_LONG:
+            case SIGNED_LONG:
+                return long.class;
+            case FLAG:
+                return boolean.class;
+            case FLOAT:
+                return float.class;
+            case DOUBLE:
+                return double.class;
+            default:
+                throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Single fixed-width parameter, as added to a builder
+     */
+    static final class Field implements BiPredicate<IBitReader, INamedTreePart> {
+
+        Field(String name, int type, int bits) {
+            this.name = name;
+            this.type = type;
+            this.bits = bits;
+        }
+
+        final String name;
+        final int type;
+        final int bits;
+
+        @Override
+        public boolean test(IBitReader reader, INamedTreePart tree) {
+            tree.put(name, read(reader, type, bits));
+            return true;
+        }
+
+    }
+
+    /**
+     * Fixed amount of (not necessarily aligned) bytes, as added to a builder
+     */
+    static final class Bytes implements BiPredicate<IBitReader, INamedTreePart> {
+
+        Bytes(String name, int count, boolean slice) {
+            this.name = name;
+            this.count = count;
+            this.slice = slice;
+        }
+
+        final String name;
+        final int count;
+        final boolean slice;
+
+        @Override
+        public boolean test(IBitReader reader, INamedTreePart tree) {
+            tree.put(name, slice ? reader.readSlice(count) : reader.readBytes(count));
+            return true;
+        }
+
+    }
+
+}
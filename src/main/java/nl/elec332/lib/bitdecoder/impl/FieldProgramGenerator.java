@@ -0,0 +1,267 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+import nl.elec332.lib.java.tree.INamedTreePart;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Generates a dedicated class for a run of fixed-width parameters,
+ * in which every read and every tree store is emitted as straight-line bytecode.
+ * The generated code contains no branches, so no stack map frames are needed.
+ */
+final class FieldProgramGenerator {
+
+    private FieldProgramGenerator() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Keeps generated methods well below the JIT's huge method limit (8000 bytes of bytecode)
+     */
+    static final int MAX_FIELDS = 256;
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private static final String READER = "nl/elec332/lib/bitdecoder/api/IBitReader";
+    private static final String TREE = "nl/elec332/lib/java/tree/INamedTreePart";
+    private static final String PROGRAM = "nl/elec332/lib/bitdecoder/impl/FieldProgram";
+
+    /**
+     * Generates (and loads) a decoder class for the provided fields
+     *
+     * @param fields The fields to decode, at most {@link #MAX_FIELDS}
+     * @return The generated decoder
+     */
+    @SuppressWarnings("unchecked")
+    static BiPredicate<IBitReader, INamedTreePart> generate(List<FieldProgram.Field> fields) {
+        if (fields.size() > MAX_FIELDS) {
+            throw new IllegalArgumentException();
+        }
+        String className = PROGRAM + "$Generated" + COUNTER.incrementAndGet();
+        try {
+            Class<?> type = MethodHandles.lookup().defineClass(new ClassWriter(className).write(fields));
+            return (BiPredicate<IBitReader, INamedTreePart>) type.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to generate decoder", e);
+        }
+    }
+
+    private static class ClassWriter {
+
+        private ClassWriter(String className) {
+            this.className = className;
+            this.pool = new ByteArrayOutputStream();
+            this.poolOut = new DataOutputStream(pool);
+            this.entries = new HashMap<>();
+            this.poolSize = 1;
+        }
+
+        private final String className;
+        private final ByteArrayOutputStream pool;
+        private final DataOutputStream poolOut;
+        private final Map<String, Integer> entries;
+        private int poolSize;
+
+        private byte[] write(List<FieldProgram.Field> fields) {
+            try {
+                int thisClass = classRef(className);
+                int superClass = classRef("java/lang/Object");
+                int predicate = classRef("java/util/function/BiPredicate");
+                int codeName = utf8("Code");
+
+                ByteArrayOutputStream constructor = new ByteArrayOutputStream();
+                DataOutputStream ctor = new DataOutputStream(constructor);
+                ctor.writeByte(0x2a); //aload_0
+                ctor.writeByte(0xb7); //invokespecial
+                ctor.writeShort(methodRef(10, "java/lang/Object", "<init>", "()V"));
+                ctor.writeByte(0xb1); //return
+
+                ByteArrayOutputStream test = new ByteArrayOutputStream();
+                DataOutputStream code = new DataOutputStream(test);
+                code.writeByte(0x2b); //aload_1
+                code.writeByte(0xc0); //checkcast
+                code.writeShort(classRef(READER));
+                code.writeByte(0x4c); //astore_1
+                code.writeByte(0x2c); //aload_2
+                code.writeByte(0xc0); //checkcast
+                code.writeShort(classRef(TREE));
+                code.writeByte(0x4d); //astore_2
+                for (FieldProgram.Field field : fields) {
+                    code.writeByte(0x2c); //aload_2
+                    code.writeByte(0x13); //ldc_w
+                    code.writeShort(string(field.name));
+                    code.writeByte(0x2b); //aload_1
+                    writeRead(code, field);
+                    code.writeByte(0xb8); //invokestatic
+                    code.writeShort(methodRef(10, PROGRAM, "put", "(L" + TREE + ";Ljava/lang/String;Ljava/lang/Object;)V"));
+                }
+                code.writeByte(0x04); //iconst_1
+                code.writeByte(0xac); //ireturn
+
+                int initName = utf8("<init>");
+                int initDesc = utf8("()V");
+                int testName = utf8("test");
+                int testDesc = utf8("(Ljava/lang/Object;Ljava/lang/Object;)Z");
+
+                ByteArrayOutputStream ret = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(ret);
+                out.writeInt(0xCAFEBABE);
+                out.writeShort(0);
+                out.writeShort(55);
+                out.writeShort(poolSize);
+                poolOut.flush();
+                pool.writeTo(out);
+                out.writeShort(0x0031); //public final super
+                out.writeShort(thisClass);
+                out.writeShort(superClass);
+                out.writeShort(1);
+                out.writeShort(predicate);
+                out.writeShort(0);
+                out.writeShort(2);
+                writeMethod(out, initName, initDesc, codeName, 1, 1, constructor.toByteArray());
+                writeMethod(out, testName, testDesc, codeName, 5, 3, test.toByteArray());
+                out.writeShort(0);
+                return ret.toByteArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeRead(DataOutputStream code, FieldProgram.Field field) throws IOException {
+            switch (field.type) {
+                case FieldProgram.UNSIGNED_INT:
+                case FieldProgram.SIGNED_INT:
+                    code.writeByte(0x10); //bipush
+                    code.writeByte(field.bits);
+                    invokeReader(code, field.type == FieldProgram.UNSIGNED_INT ? "readLong" : "readSignedBits", "(I)J", 2);
+                    code.writeByte(0x88); //l2i
+                    box(code, "java/lang/Integer", "I");
+                    break;
+                case FieldProgram.UNSIGNED_LONG:
+                case FieldProgram.SIGNED_LONG:
+                    code.writeByte(0x10); //bipush
+                    code.writeByte(field.bits);
+                    invokeReader(code, field.type == FieldProgram.UNSIGNED_LONG ? "readLong" : "readSignedBits", "(I)J", 2);
+                    box(code, "java/lang/Long", "J");
+                    break;
+                case FieldProgram.FLAG:
+                    invokeReader(code, "readBit", "()Z", 1);
+                    box(code, "java/lang/Boolean", "Z");
+                    break;
+                case FieldProgram.FLOAT:
+                    invokeReader(code, "readFloat", "()F", 1);
+                    box(code, "java/lang/Float", "F");
+                    break;
+                case FieldProgram.DOUBLE:
+                    invokeReader(code, "readDouble", "()D", 1);
+                    box(code, "java/lang/Double", "D");
+                    break;
+                default:
+                    throw new IllegalStateException();
+            }
+        }
+
+        private void invokeReader(DataOutputStream code, String name, String desc, int argSlots) throws IOException {
+            code.writeByte(0xb9); //invokeinterface
+            code.writeShort(methodRef(11, READER, name, desc));
+            code.writeByte(argSlots);
+            code.writeByte(0);
+        }
+
+        private void box(DataOutputStream code, String type, String primitive) throws IOException {
+            code.writeByte(0xb8); //invokestatic
+            code.writeShort(methodRef(10, type, "valueOf", "(" + primitive + ")L" + type + ";"));
+        }
+
+        private void writeMethod(DataOutputStream out, int name, int desc, int codeName, int maxStack, int maxLocals, byte[] code) throws IOException {
+            out.writeShort(0x0001); //public
+            out.writeShort(name);
+            out.writeShort(desc);
+            out.writeShort(1);
+            out.writeShort(codeName);
+            out.writeInt(12 + code.length);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(code.length);
+            out.write(code);
+            out.writeShort(0);
+            out.writeShort(0);
+        }
+
+        private int utf8(String value) throws IOException {
+            Integer index = entries.get("U" + value);
+            if (index == null) {
+                poolOut.writeByte(1);
+                poolOut.writeUTF(value);
+                index = add("U" + value);
+            }
+            return index;
+        }
+
+        private int classRef(String name) throws IOException {
+            return ref(7, "C" + name, utf8(name));
+        }
+
+        private int string(String value) throws IOException {
+            return ref(8, "S" + value, utf8(value));
+        }
+
+        private int methodRef(int tag, String owner, String name, String desc) throws IOException {
+            String key = "M" + owner + "." + name + desc;
+            Integer index = entries.get(key);
+            if (index == null) {
+                int ownerIndex = classRef(owner);
+                int nameAndType = nameAndType(name, desc);
+                poolOut.writeByte(tag);
+                poolOut.writeShort(ownerIndex);
+                poolOut.writeShort(nameAndType);
+                index = add(key);
+            }
+            return index;
+        }
+
+        private int nameAndType(String name, String desc) throws IOException {
+            String key = "N" + name + desc;
+            Integer index = entries.get(key);
+            if (index == null) {
+                int nameIndex = utf8(name);
+                int descIndex = utf8(desc);
+                poolOut.writeByte(12);
+                poolOut.writeShort(nameIndex);
+                poolOut.writeShort(descIndex);
+                index = add(key);
+            }
+            return index;
+        }
+
+        private int ref(int tag, String key, int utf8) throws IOException {
+            Integer index = entries.get(key);
+            if (index == null) {
+                poolOut.writeByte(tag);
+                poolOut.writeShort(utf8);
+                index = add(key);
+            }
+            return index;
+        }
+
+        private int add(String key) {
+            int index = poolSize++;
+            entries.put(key, index);
+            return index;
+        }
+
+    }
+
+}
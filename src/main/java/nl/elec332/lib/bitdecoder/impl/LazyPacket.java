@@ -0,0 +1,154 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.DecodeAssertionError;
+import nl.elec332.lib.bitdecoder.api.DecodeException;
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.bitdecoder.api.ILazyPacket;
+import nl.elec332.lib.java.tree.INamedTreePart;
+import nl.elec332.lib.java.tree.NamedTree;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Lazy packet view, uses the {@link FieldLayout} of a spec as skip index.
+ * Segments are resolved in order and only up to the segment of the requested parameter,
+ * the start of every resolved segment is remembered so later parameters don't decode the steps before them again.
+ * All steps run on the same reader, so reader properties carry over from one step to the next like in a full decode.
+ */
+final class LazyPacket implements ILazyPacket {
+
+    LazyPacket(IDynamicPacketSpec spec, FieldLayout layout, byte[] data, int byteIndex) {
+        this.spec = spec;
+        this.layout = layout;
+        this.data = data;
+        this.byteIndex = byteIndex;
+        this.segmentStarts = new long[layout.segmentBits.length];
+        this.segmentStarts[0] = (long) byteIndex << 3;
+        this.resolved = 1;
+    }
+
+    private final IDynamicPacketSpec spec;
+    private final FieldLayout layout;
+    private final byte[] data;
+    private final int byteIndex;
+    private final long[] segmentStarts;
+
+    private int resolved;
+    private boolean stopped;
+    private INamedTreePart partial;
+    private WordBitReader reader;
+    private INamedTreePart tree;
+
+    @Override
+    public Object get(String name) {
+        int i = indexOf(name);
+        if (i < 0) {
+            return getTree().get(name);
+        }
+        return layout.extract(data, data.length, segmentStarts[layout.segments[i]], i);
+    }
+
+    @Override
+    public long getLong(String name) {
+        int i = indexOf(name);
+        if (i < 0) {
+            return ILazyPacket.super.getLong(name);
+        }
+        int type = layout.types[i];
+        if (type == FieldProgram.FLOAT) {
+            return (long) Float.intBitsToFloat((int) raw(i));
+        }
+        if (type == FieldProgram.DOUBLE) {
+            return (long) Double.longBitsToDouble(raw(i));
+        }
+        if (type == FieldProgram.FLAG) {
+            throw new ClassCastException("Parameter " + name + " is not numeric");
+        }
+        return raw(i);
+    }
+
+    @Override
+    public double getDouble(String name) {
+        int i = indexOf(name);
+        if (i < 0) {
+            return ILazyPacket.super.getDouble(name);
+        }
+        int type = layout.types[i];
+        if (type == FieldProgram.FLOAT) {
+            return Float.intBitsToFloat((int) raw(i));
+        }
+        if (type == FieldProgram.DOUBLE) {
+            return Double.longBitsToDouble(raw(i));
+        }
+        return getLong(name);
+    }
+
+    @Override
+    public boolean getBoolean(String name) {
+        int i = indexOf(name);
+        if (i < 0 || layout.types[i] != FieldProgram.FLAG) {
+            return ILazyPacket.super.getBoolean(name);
+        }
+        return raw(i) != 0;
+    }
+
+    @Override
+    public INamedTreePart getTree() {
+        if (tree == null) {
+            tree = spec.decode(data, byteIndex);
+        }
+        return tree;
+    }
+
+    /**
+     * @return The index of the parameter in the layout, or -1 if its value has to be taken from the decoded tree
+     */
+    private int indexOf(String name) {
+        if (tree != null) {
+            return -1;
+        }
+        int ret = layout.indexOf(name);
+        return ret < 0 || !resolve(layout.segments[ret]) ? -1 : ret;
+    }
+
+    /**
+     * Decodes the steps before the provided segment that haven't been decoded yet
+     *
+     * @return Whether the segment is part of the packet, false if a step before it ended decoding
+     */
+    private boolean resolve(int segment) {
+        while (resolved <= segment) {
+            if (stopped) {
+                return false;
+            }
+            int previous = resolved - 1;
+            if (partial == null) {
+                partial = new NamedTree();
+            }
+            layout.extractSegment(data, data.length, segmentStarts[previous], previous, partial);
+            long start = segmentStarts[previous] + layout.segmentBits[previous];
+            if (reader == null) {
+                reader = new WordBitReader(data, start, (long) data.length << 3);
+            } else {
+                reader.seek(start);
+            }
+            try {
+                if (!layout.steps.get(previous).test(reader, partial)) {
+                    stopped = true;
+                    return false;
+                }
+            } catch (DecodeException e) {
+                throw spec.hasName() ? e.addParent(spec.getName()) : e;
+            } catch (DecodeAssertionError e) {
+                throw spec.hasName() ? e.addParent(spec.getName()) : e;
+            }
+            segmentStarts[resolved++] = reader.getPosition();
+        }
+        return true;
+    }
+
+    private long raw(int i) {
+        return layout.extractRaw(data, data.length, segmentStarts[layout.segments[i]], i);
+    }
+
+}
@@ -0,0 +1,102 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.DecodeException;
+import nl.elec332.lib.bitdecoder.api.IFrameLength;
+import nl.elec332.lib.bitdecoder.api.IPacketColumns;
+
+import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Column storage for a batch of packets decoded from a flat program of fixed-width parameters
+ */
+final class PacketColumns implements IPacketColumns {
+
+    private PacketColumns(FieldProgram fields, int size) {
+        this.size = size;
+        this.names = List.of(fields.names);
+        this.columns = new Object[fields.code.length];
+        this.index = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = Array.newInstance(FieldProgram.javaType(fields.code[i] >>> 8), size);
+            index.put(fields.names[i], i);
+        }
+    }
+
+    private final int size;
+    private final List<String> names;
+    private final Object[] columns;
+    private final Map<String, Integer> index;
+
+    static PacketColumns decode(FieldProgram fields, byte[] data, int byteIndex, int count, IFrameLength frameLength) {
+        final PacketColumns ret = new PacketColumns(fields, count);
+        if (count == 0) {
+            return ret;
+        }
+        final int[] code = fields.code;
+        final Object[] columns = ret.columns;
+        final WordBitReader reader = new WordBitReader(data, byteIndex);
+        for (int i = 0; i < count; i++) {
+            if (byteIndex > data.length) {
+                throw new DecodeException("Not enough data available");
+            }
+            //The last frame only has to fit its parameters, not the full frame length
+            int length = frameLength.getFrameLength(data, byteIndex);
+            if (length <= 0) {
+                throw new IllegalArgumentException("Invalid frame length: " + length);
+            }
+            reader.reset(data, byteIndex, Math.min(length, data.length - byteIndex));
+            for (int j = 0; j < code.length; j++) {
+                int type = code[j] >>> 8;
+                long value = FieldProgram.readRaw(reader, type, code[j] & 0xFF);
+                switch (type) {
+                    case FieldProgram.UNSIGNED_INT:
+                    case FieldProgram.SIGNED_INT:
+                        ((int[]) columns[j])[i] = (int) value;
+                        break;
+                    case FieldProgram.UNSIGNED_LONG:
+                    case FieldProgram.SIGNED_LONG:
+                        ((long[]) columns[j])[i] = value;
+                        break;
+                    case FieldProgram.FLAG:
+                        ((boolean[]) columns[j])[i] = value != 0;
+                        break;
+                    case FieldProgram.FLOAT:
+                        ((float[]) columns[j])[i] = Float.intBitsToFloat((int) value);
+                        break;
+                    case FieldProgram.DOUBLE:
+                        ((double[]) columns[j])[i] = Double.longBitsToDouble(value);
+                        break;
+                    default:
+                        throw new IllegalStateException();
+                }
+            }
+            byteIndex += length;
+        }
+        return ret;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<String> getNames() {
+        return names;
+    }
+
+    @Override
+    public Object getColumn(String name) {
+        Integer i = index.get(name);
+        if (i == null) {
+            throw new IllegalArgumentException("No column named " + name);
+        }
+        return columns[i];
+    }
+
+}
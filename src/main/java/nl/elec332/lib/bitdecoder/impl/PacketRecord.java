@@ -0,0 +1,140 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IPacketRecord;
+import nl.elec332.lib.java.tree.INamedTreePart;
+import nl.elec332.lib.java.tree.NamedTree;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Record with a slot for every parameter of a {@link RecordLayout}.
+ * Fixed-width parameters are stored as raw bits (see {@link FieldProgram#readRaw}) in the {@code long[]},
+ * their slot in the {@code Object[]} only marks them as present.
+ * When the layout has steps that need a tree, every value also gets mirrored into a tree view.
+ */
+final class PacketRecord implements IPacketRecord {
+
+    PacketRecord(RecordLayout layout) {
+        this.layout = layout;
+        this.values = new long[layout.names.length];
+        this.objects = new Object[layout.names.length];
+        this.tree = layout.needsTree ? new NamedTree() : null;
+    }
+
+    private static final Object PRESENT = new Object();
+
+    private final RecordLayout layout;
+    private final long[] values;
+    private final Object[] objects;
+    private final INamedTreePart tree;
+
+    void setLong(int slot, long value) {
+        values[slot] = value;
+        objects[slot] = PRESENT;
+        if (tree != null) {
+            tree.put(layout.names[slot], FieldProgram.toObject(layout.types[slot], value));
+        }
+    }
+
+    void set(int slot, Object value) {
+        objects[slot] = value;
+        if (tree != null) {
+            tree.put(layout.names[slot], value instanceof IPacketRecord ? ((IPacketRecord) value).toTree() : value);
+        }
+    }
+
+    /**
+     * @return The tree view of this record, for the steps of the layout that read from or write to a tree
+     */
+    INamedTreePart getTree() {
+        return tree;
+    }
+
+    @Override
+    public int slotOf(String name) {
+        return layout.indexOf(name);
+    }
+
+    @Override
+    public int getSlotCount() {
+        return values.length;
+    }
+
+    @Override
+    public String getName(int slot) {
+        return layout.names[slot];
+    }
+
+    @Override
+    public boolean isPresent(int slot) {
+        return objects[slot] != null;
+    }
+
+    @Override
+    public Object get(String name) {
+        int slot = slotOf(name);
+        if (slot < 0) {
+            //Values without a slot can only be put in the tree view
+            return tree == null ? null : (Object) tree.get(name);
+        }
+        return get(slot);
+    }
+
+    @Override
+    public Object get(int slot) {
+        Object ret = objects[slot];
+        if (ret == PRESENT) {
+            return FieldProgram.toObject(layout.types[slot], values[slot]);
+        }
+        return ret;
+    }
+
+    @Override
+    public long getLong(int slot) {
+        switch (layout.types[slot]) {
+            case RecordLayout.OBJECT:
+                throw new ClassCastException("Parameter " + layout.names[slot] + " is not a fixed-width parameter");
+            case FieldProgram.FLOAT:
+            case FieldProgram.DOUBLE:
+                return (long) getDouble(slot);
+            default:
+                return values[slot];
+        }
+    }
+
+    @Override
+    public double getDouble(int slot) {
+        switch (layout.types[slot]) {
+            case RecordLayout.OBJECT:
+                throw new ClassCastException("Parameter " + layout.names[slot] + " is not a fixed-width parameter");
+            case FieldProgram.FLOAT:
+                return Float.intBitsToFloat((int) values[slot]);
+            case FieldProgram.DOUBLE:
+                return Double.longBitsToDouble(values[slot]);
+            default:
+                return values[slot];
+        }
+    }
+
+    @Override
+    public INamedTreePart toTree() {
+        if (tree != null) {
+            return tree;
+        }
+        INamedTreePart ret = new NamedTree();
+        for (int i = 0; i < objects.length; i++) {
+            if (objects[i] == null) {
+                continue;
+            }
+            Object value = get(i);
+            ret.put(layout.names[i], value instanceof IPacketRecord ? ((IPacketRecord) value).toTree() : value);
+        }
+        return ret;
+    }
+
+    @Override
+    public String toString() {
+        return toTree().toString();
+    }
+
+}
@@ -0,0 +1,62 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.java.tree.INamedTreePart;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Splits a batch of frames into chunks that are decoded on an {@link Executor},
+ * every chunk uses its own reader so nothing but the (immutable) spec gets shared between threads.
+ */
+final class ParallelDecoder {
+
+    private ParallelDecoder() {
+        throw new UnsupportedOperationException();
+    }
+
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Decodes every frame, a frame ends where the next one starts, the last frame ends at the end index
+     */
+    static List<INamedTreePart> decode(IDynamicPacketSpec spec, byte[] data, int[] offsets, int endIndex, Executor executor) {
+        if (offsets.length == 0) {
+            return List.of();
+        }
+        final INamedTreePart[] ret = new INamedTreePart[offsets.length];
+        int parallelism = executor instanceof ForkJoinPool ? ((ForkJoinPool) executor).getParallelism() : Runtime.getRuntime().availableProcessors();
+        int chunks = Math.max(1, Math.min(offsets.length, parallelism * CHUNKS_PER_THREAD));
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[chunks];
+        for (int c = 0; c < chunks; c++) {
+            final int from = (int) ((long) offsets.length * c / chunks);
+            final int to = (int) ((long) offsets.length * (c + 1) / chunks);
+            futures[c] = CompletableFuture.runAsync(() -> {
+                WordBitReader reader = new WordBitReader(data, 0);
+                for (int i = from; i < to; i++) {
+                    int end = i + 1 < offsets.length ? offsets[i + 1] : endIndex;
+                    ret[i] = spec.decode(reader.reset(data, offsets[i], end - offsets[i]));
+                }
+            }, executor);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+        return List.of(ret);
+    }
+
+}
@@ -0,0 +1,259 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.java.tree.INamedTreePart;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Assigns a slot index to every parameter of a spec, and decodes packets into {@link PacketRecord}s.
+ * Parameters of unnamed branches are merged into the slots of the spec itself (like they would be merged into the tree),
+ * a parameter that is defined more than once always uses the same slot.
+ * Parameter functions and other predicates get a tree view of the record (see {@link PacketRecord#getTree()}),
+ * values they put in the tree under names that have no slot can only be found in that view.
+ */
+final class RecordLayout {
+
+    private RecordLayout(List<String> names, List<Integer> types, Map<String, Integer> index, Object[] steps, int[] slots, Branch[] whenTrue, Branch[] whenFalse, boolean needsTree) {
+        this.names = names.toArray(new String[0]);
+        this.types = types.stream().mapToInt(Integer::intValue).toArray();
+        this.index = index;
+        this.steps = steps;
+        this.slots = slots;
+        this.whenTrue = whenTrue;
+        this.whenFalse = whenFalse;
+        this.needsTree = needsTree;
+    }
+
+    /**
+     * Slot type of values that are not fixed-width parameters
+     */
+    static final int OBJECT = -1;
+
+    final String[] names;
+    final int[] types;
+    final boolean needsTree;
+    private final Map<String, Integer> index;
+    private final Object[] steps;
+    private final int[] slots;
+    private final Branch[] whenTrue;
+    private final Branch[] whenFalse;
+
+    /**
+     * @return The layout of the provided parameters, or null if a parameter is defined more than once with different types
+     */
+    static RecordLayout create(List<BiPredicate<IBitReader, INamedTreePart>> readers) {
+        List<String> names = new ArrayList<>();
+        List<Integer> types = new ArrayList<>();
+        Map<String, Integer> index = new HashMap<>();
+        Object[] steps = new Object[readers.size()];
+        int[] slots = new int[steps.length];
+        Branch[] whenTrue = new Branch[steps.length];
+        Branch[] whenFalse = new Branch[steps.length];
+        boolean needsTree = false;
+        for (int i = 0; i < steps.length; i++) {
+            var r = readers.get(i);
+            Object step = r;
+            int slot = 0;
+            if (r instanceof FieldProgram.Field) {
+                FieldProgram.Field field = (FieldProgram.Field) r;
+                slot = slot(names, types, index, field.name, field.type);
+            } else if (r instanceof FieldProgram.Bytes) {
+                slot = slot(names, types, index, ((FieldProgram.Bytes) r).name, OBJECT);
+            } else if (r instanceof DynamicPacketSpec.NamedParameter) {
+                slot = slot(names, types, index, ((DynamicPacketSpec.NamedParameter<?>) r).name, OBJECT);
+                needsTree = true;
+            } else if (r instanceof FieldChoice && index.containsKey(((FieldChoice) r).field) && isInteger(types.get(index.get(((FieldChoice) r).field)))) {
+                FieldChoice choice = (FieldChoice) r;
+                slot = index.get(choice.field);
+                whenTrue[i] = branch(names, types, index, choice.whenTrue);
+                whenFalse[i] = branch(names, types, index, choice.whenFalse);
+                if (whenTrue[i] == Branch.INVALID || whenFalse[i] == Branch.INVALID) {
+                    whenTrue[i] = whenFalse[i] = null;
+                    step = null;
+                } else {
+                    needsTree |= needsTree(whenTrue[i]) || needsTree(whenFalse[i]);
+                }
+            } else if (r instanceof SwitchParameter) {
+                SwitchParameter parameter = (SwitchParameter) r;
+                slot = parameter.getName() == null ? -1 : slot(names, types, index, parameter.getName(), FieldProgram.SIGNED_INT);
+                Map<IDynamicPacketSpec, Branch> cases = new IdentityHashMap<>();
+                for (IDynamicPacketSpec spec : parameter.getCases()) {
+                    Branch branch = branch(names, types, index, spec);
+                    if (branch == Branch.INVALID) {
+                        cases = null;
+                        break;
+                    }
+                    cases.put(spec, branch);
+                }
+                step = cases == null ? null : new Switch(parameter, cases);
+                //The key reader gets the tree
+                needsTree = true;
+            } else {
+                step = null;
+            }
+            if (step == null) {
+                //Everything else runs on the tree view
+                step = r;
+                slot = -1;
+                needsTree = true;
+            } else if (slot == Integer.MIN_VALUE) {
+                return null;
+            }
+            steps[i] = step;
+            slots[i] = slot;
+        }
+        return new RecordLayout(names, types, index, steps, slots, whenTrue, whenFalse, needsTree);
+    }
+
+    /**
+     * @return The slot for the provided parameter, or {@link Integer#MIN_VALUE} if it was already defined with another type
+     */
+    private static int slot(List<String> names, List<Integer> types, Map<String, Integer> index, String name, int type) {
+        Integer ret = index.get(name);
+        if (ret != null) {
+            return types.get(ret) == type ? ret : Integer.MIN_VALUE;
+        }
+        index.put(name, names.size());
+        names.add(name);
+        types.add(type);
+        return names.size() - 1;
+    }
+
+    private static Branch branch(List<String> names, List<Integer> types, Map<String, Integer> index, IDynamicPacketSpec spec) {
+        if (spec == null) {
+            return null;
+        }
+        if (!(spec instanceof DynamicPacketSpec) || ((DynamicPacketSpec) spec).getRecordLayout() == null) {
+            return Branch.INVALID;
+        }
+        if (spec.hasName()) {
+            int slot = slot(names, types, index, spec.getName(), OBJECT);
+            return slot < 0 ? Branch.INVALID : new Branch(spec, null, slot, null);
+        }
+        RecordLayout layout = ((DynamicPacketSpec) spec).getRecordLayout();
+        int[] map = new int[layout.names.length];
+        for (int i = 0; i < map.length; i++) {
+            map[i] = slot(names, types, index, layout.names[i], layout.types[i]);
+            if (map[i] < 0) {
+                return Branch.INVALID;
+            }
+        }
+        return new Branch(null, layout, -1, map);
+    }
+
+    private static boolean needsTree(Branch branch) {
+        return branch != null && branch.layout != null && branch.layout.needsTree;
+    }
+
+    private static boolean isInteger(int type) {
+        return type == FieldProgram.UNSIGNED_INT || type == FieldProgram.UNSIGNED_LONG || type == FieldProgram.SIGNED_INT || type == FieldProgram.SIGNED_LONG || type == FieldProgram.FLAG;
+    }
+
+    /**
+     * @return The slot index of the provided parameter, or -1 if there is no such parameter
+     */
+    int indexOf(String name) {
+        Integer ret = index.get(name);
+        return ret == null ? -1 : ret;
+    }
+
+    /**
+     * Decodes a packet into a record
+     *
+     * @param reader The reader
+     * @param record The record to write the values to
+     * @param map    Maps the slots of this layout to the slots of the record, or null if the record uses this layout
+     */
+    @SuppressWarnings("unchecked")
+    void decode(IBitReader reader, PacketRecord record, int[] map) {
+        final Object[] steps = this.steps;
+        for (int i = 0; i < steps.length; i++) {
+            Object step = steps[i];
+            int slot = map == null || slots[i] < 0 ? slots[i] : map[slots[i]];
+            if (step instanceof FieldProgram.Field) {
+                FieldProgram.Field field = (FieldProgram.Field) step;
+                record.setLong(slot, FieldProgram.readRaw(reader, field.type, field.bits));
+            } else if (step instanceof FieldProgram.Bytes) {
+                FieldProgram.Bytes bytes = (FieldProgram.Bytes) step;
+                record.set(slot, bytes.slice ? reader.readSlice(bytes.count) : reader.readBytes(bytes.count));
+            } else if (step instanceof DynamicPacketSpec.NamedParameter) {
+                record.set(slot, ((DynamicPacketSpec.NamedParameter<?>) step).decoder.apply(reader, record.getTree().getImmutable()));
+            } else if (step instanceof Switch) {
+                Switch s = (Switch) step;
+                int key = s.parameter.readKey(reader, record.getTree());
+                if (slot >= 0) {
+                    record.setLong(slot, key);
+                }
+                IDynamicPacketSpec choice = s.parameter.get(key);
+                if (choice != null) {
+                    s.cases.get(choice).decode(reader, record, map);
+                }
+            } else if (step instanceof FieldChoice && slot >= 0) {
+                Branch branch = ((FieldChoice) step).predicate.test(record.getLong(slot)) ? whenTrue[i] : whenFalse[i];
+                if (branch != null) {
+                    branch.decode(reader, record, map);
+                }
+            } else if (!((BiPredicate<IBitReader, INamedTreePart>) step).test(reader, record.getTree())) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Switch with the branches of all its cases
+     */
+    private static final class Switch {
+
+        private Switch(SwitchParameter parameter, Map<IDynamicPacketSpec, Branch> cases) {
+            this.parameter = parameter;
+            this.cases = cases;
+        }
+
+        private final SwitchParameter parameter;
+        private final Map<IDynamicPacketSpec, Branch> cases;
+
+    }
+
+    private static final class Branch {
+
+        private Branch(IDynamicPacketSpec spec, RecordLayout layout, int slot, int[] map) {
+            this.spec = spec;
+            this.layout = layout;
+            this.slot = slot;
+            this.map = map;
+        }
+
+        private static final Branch INVALID = new Branch(null, null, -1, null);
+
+        private final IDynamicPacketSpec spec;
+        private final RecordLayout layout;
+        private final int slot;
+        private final int[] map;
+
+        private void decode(IBitReader reader, PacketRecord record, int[] outer) {
+            if (spec != null) {
+                record.set(outer == null ? slot : outer[slot], spec.decodeRecord(reader));
+                return;
+            }
+            int[] map = this.map;
+            if (outer != null) {
+                map = map.clone();
+                for (int i = 0; i < map.length; i++) {
+                    map[i] = outer[map[i]];
+                }
+            }
+            layout.decode(reader, record, map);
+        }
+
+    }
+
+}
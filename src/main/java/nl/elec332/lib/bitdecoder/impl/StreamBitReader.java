@@ -0,0 +1,127 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Word-at-a-time reader for (unbounded) {@link InputStream}s and {@link ReadableByteChannel}s.
+ * Data is pulled through a fixed-size buffer that gets refilled on demand, so a (sub)packet spec
+ * can decode frames back-to-back from the same reader with constant memory.
+ * Byte-indices are counted from the start of the stream, {@link #getByteIndex()} wraps after 2GB of stream data
+ * but {@link #getPosition()} keeps counting.
+ * A single peek can never span more bytes than the buffer size.
+ * The end of the stream has been reached when {@link #getCurrentByte()} returns -1.
+ */
+public class StreamBitReader extends AbstractBitReader {
+
+    public StreamBitReader(InputStream stream) {
+        this(stream, DEFAULT_BUFFER_SIZE);
+    }
+
+    public StreamBitReader(InputStream stream, int bufferSize) {
+        this(stream, null, bufferSize);
+    }
+
+    public StreamBitReader(ReadableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    public StreamBitReader(ReadableByteChannel channel, int bufferSize) {
+        this(null, channel, bufferSize);
+    }
+
+    private StreamBitReader(InputStream stream, ReadableByteChannel channel, int bufferSize) {
+        super(0, 0);
+        if (bufferSize < 16) {
+            throw new IllegalArgumentException("Buffer size too small");
+        }
+        this.stream = stream;
+        this.channel = channel;
+        this.buffer = new byte[bufferSize];
+        this.channelBuffer = channel == null ? null : ByteBuffer.wrap(buffer);
+        this.bufferStart = 0;
+        this.bufferEnd = 0;
+        this.endOfStream = false;
+    }
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final InputStream stream;
+    private final ReadableByteChannel channel;
+    private final byte[] buffer;
+    private final ByteBuffer channelBuffer;
+
+    private long bufferStart;
+    private int bufferEnd;
+    private boolean endOfStream;
+
+    @Override
+    protected boolean fill(long bits) {
+        if (endOfStream) {
+            return false;
+        }
+        long current = getPosition() >>> 3;
+        long needed = (getPosition() & 7) + bits;
+        int keep = (int) (bufferStart + bufferEnd - current);
+        if ((needed + 7) >>> 3 > buffer.length) {
+            return false;
+        }
+        if (current > bufferStart) {
+            System.arraycopy(buffer, (int) (current - bufferStart), buffer, 0, keep);
+            bufferStart = current;
+            bufferEnd = keep;
+        }
+        while (((long) bufferEnd << 3) < needed) {
+            int read = readSource(bufferEnd);
+            if (read < 0) {
+                endOfStream = true;
+                break;
+            }
+            bufferEnd += read;
+        }
+        setEndIndex(bufferStart + bufferEnd);
+        return ((long) bufferEnd << 3) >= needed;
+    }
+
+    @Override
+    protected boolean isMemoryBacked() {
+        return false;
+    }
+
+    private int readSource(int offset) {
+        try {
+            if (channel != null) {
+                channelBuffer.clear().position(offset);
+                return channel.read(channelBuffer);
+            }
+            return stream.read(buffer, offset, buffer.length - offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected long loadWord(long index) {
+        return WordBitReader.loadWord(buffer, (int) (index - bufferStart), bufferEnd);
+    }
+
+    @Override
+    protected byte loadByte(long index) {
+        return buffer[(int) (index - bufferStart)];
+    }
+
+    @Override
+    protected void copyBytes(long index, byte[] dest, int offset, int length) {
+        int i = (int) (index - bufferStart);
+        if (i + length > bufferEnd) {
+            throw new IndexOutOfBoundsException("Index: " + (index + length));
+        }
+        System.arraycopy(buffer, i, dest, offset, length);
+    }
+
+}
@@ -0,0 +1,167 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.java.tree.INamedTreePart;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Multi-way branch that selects a case in constant time.
+ * Dense keys are looked up in an array indexed by {@code key - min},
+ * sparse keys in an open-addressing table with a multiplier chosen to avoid collisions.
+ */
+final class SwitchParameter implements BiPredicate<IBitReader, INamedTreePart> {
+
+    SwitchParameter(String name, ToIntBiFunction<IBitReader, INamedTreePart> keyReader, Map<Integer, IDynamicPacketSpec> cases, IDynamicPacketSpec defaultCase) {
+        if (name != null && name.isEmpty()) {
+            throw new IllegalArgumentException("Empty name!");
+        }
+        this.name = name;
+        this.keyReader = Objects.requireNonNull(keyReader);
+        this.defaultCase = defaultCase;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (var e : cases.entrySet()) {
+            Objects.requireNonNull(e.getValue());
+            min = Math.min(min, e.getKey());
+            max = Math.max(max, e.getKey());
+        }
+        long range = (long) max - min + 1;
+        if (cases.isEmpty() || range <= MAX_DENSE_RANGE && range <= 4L * cases.size() + 16) {
+            this.min = cases.isEmpty() ? 0 : min;
+            this.values = new IDynamicPacketSpec[cases.isEmpty() ? 0 : (int) range];
+            this.keys = null;
+            for (var e : cases.entrySet()) {
+                values[e.getKey() - this.min] = e.getValue();
+            }
+            this.multiplier = 0;
+            this.shift = 0;
+        } else {
+            int bits = 32 - Integer.numberOfLeadingZeros(cases.size() * 2 - 1);
+            int multiplier = findMultiplier(cases, bits);
+            this.min = 0;
+            this.values = new IDynamicPacketSpec[1 << bits];
+            this.keys = new int[1 << bits];
+            this.multiplier = multiplier;
+            this.shift = 32 - bits;
+            int mask = values.length - 1;
+            for (var e : cases.entrySet()) {
+                int i = (e.getKey() * multiplier) >>> shift;
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = e.getKey();
+                values[i] = e.getValue();
+            }
+        }
+    }
+
+    private static final int MAX_DENSE_RANGE = 1 << 16;
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private final String name;
+    private final ToIntBiFunction<IBitReader, INamedTreePart> keyReader;
+    private final IDynamicPacketSpec defaultCase;
+    private final int min;
+    private final IDynamicPacketSpec[] values;
+    private final int[] keys;
+    private final int multiplier;
+    private final int shift;
+
+    /**
+     * Searches for a multiplier that maps every key to its own slot (a perfect hash),
+     * falls back to Fibonacci hashing (with probing) when none can be found quickly.
+     */
+    private static int findMultiplier(Map<Integer, IDynamicPacketSpec> cases, int bits) {
+        boolean[] used = new boolean[1 << bits];
+        int multiplier = GOLDEN_RATIO;
+        for (int attempt = 0; attempt < 64; attempt++, multiplier += 2 * GOLDEN_RATIO) {
+            Arrays.fill(used, false);
+            boolean perfect = true;
+            for (int key : cases.keySet()) {
+                int i = (key * multiplier) >>> (32 - bits);
+                if (used[i]) {
+                    perfect = false;
+                    break;
+                }
+                used[i] = true;
+            }
+            if (perfect) {
+                return multiplier;
+            }
+        }
+        return GOLDEN_RATIO;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * @return All cases, including the default case
+     */
+    List<IDynamicPacketSpec> getCases() {
+        List<IDynamicPacketSpec> ret = new ArrayList<>();
+        for (IDynamicPacketSpec spec : values) {
+            if (spec != null) {
+                ret.add(spec);
+            }
+        }
+        if (defaultCase != null) {
+            ret.add(defaultCase);
+        }
+        return ret;
+    }
+
+    int readKey(IBitReader reader, INamedTreePart tree) {
+        return keyReader.applyAsInt(reader, tree);
+    }
+
+    @Override
+    public boolean test(IBitReader reader, INamedTreePart tree) {
+        int key = readKey(reader, tree);
+        if (name != null) {
+            tree.put(name, key);
+        }
+        IDynamicPacketSpec choice = get(key);
+        if (choice != null) {
+            if (choice.hasName()) {
+                tree.put(choice.getName(), choice.decode(reader));
+            } else {
+                choice.decode(reader, tree);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The case for the provided key, or the default case if there is no such case
+     */
+    IDynamicPacketSpec get(int key) {
+        final IDynamicPacketSpec[] values = this.values;
+        if (keys == null) {
+            int i = key - min;
+            if (i >= 0 && i < values.length && values[i] != null) {
+                return values[i];
+            }
+            return defaultCase;
+        }
+        int mask = values.length - 1;
+        for (int i = (key * multiplier) >>> shift; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return defaultCase;
+    }
+
+}
@@ -0,0 +1,203 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+import nl.elec332.lib.bitdecoder.api.ISyncScanner;
+
+import java.util.Arrays;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Sync word scanner, byte-aligned sync words are searched with Boyer-Moore-Horspool,
+ * unaligned sync words are matched against a sliding 64-bit word at every bit offset.
+ */
+public final class SyncScanner implements ISyncScanner {
+
+    /**
+     * Creates a scanner for a byte-aligned sync word
+     *
+     * @param pattern The sync word
+     * @return The scanner
+     */
+    public static ISyncScanner forBytes(byte[] pattern) {
+        return forBytes(pattern, true);
+    }
+
+    /**
+     * Creates a scanner for a sync word that consists of whole bytes
+     *
+     * @param pattern The sync word
+     * @param aligned Whether the sync word always starts at a byte boundary
+     * @return The scanner
+     */
+    public static ISyncScanner forBytes(byte[] pattern, boolean aligned) {
+        if (pattern.length == 0) {
+            throw new IllegalArgumentException("Empty sync word");
+        }
+        return new SyncScanner(pattern.clone(), (long) pattern.length << 3, aligned);
+    }
+
+    /**
+     * Creates a scanner for a sync word that can start at any bit offset
+     *
+     * @param pattern The sync word, in the lowest bits
+     * @param bits The length of the sync word {@code (1 - 64)}
+     * @return The scanner
+     */
+    public static ISyncScanner forBits(long pattern, int bits) {
+        if (bits < 1 || bits > 64) {
+            throw new IllegalArgumentException("Invalid amount of bits: " + bits);
+        }
+        if (bits < 64 && pattern >>> bits != 0) {
+            throw new IllegalArgumentException("Sync word has more than " + bits + " bits");
+        }
+        byte[] bytes = new byte[(bits + 7) >>> 3];
+        long value = pattern << (64 - bits);
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (value >>> (56 - (i << 3)));
+        }
+        return new SyncScanner(bytes, bits, false);
+    }
+
+    private SyncScanner(byte[] pattern, long bits, boolean aligned) {
+        this.pattern = pattern;
+        this.bits = bits;
+        this.aligned = aligned;
+        this.prefixBits = (int) Math.min(64, bits);
+        this.prefix = WordBitReader.loadWord(pattern, 0, pattern.length) >>> (64 - prefixBits);
+        this.skip = new int[256];
+        Arrays.fill(skip, pattern.length);
+        for (int i = 0; i < pattern.length - 1; i++) {
+            skip[Byte.toUnsignedInt(pattern[i])] = pattern.length - 1 - i;
+        }
+    }
+
+    private final byte[] pattern;
+    private final long bits;
+    private final boolean aligned;
+    private final long prefix;
+    private final int prefixBits;
+    private final int[] skip;
+
+    @Override
+    public long getBits() {
+        return bits;
+    }
+
+    @Override
+    public long indexOf(byte[] data, long fromBit, long toBit) {
+        toBit = Math.min(toBit, (long) data.length << 3);
+        if (fromBit < 0) {
+            fromBit = 0;
+        }
+        if (aligned) {
+            int ret = indexOf(data, (int) ((fromBit + 7) >>> 3), (int) (toBit >>> 3));
+            return ret < 0 ? -1 : (long) ret << 3;
+        }
+        int end = (int) ((toBit + 7) >>> 3);
+        for (long position = fromBit; position + bits <= toBit; ) {
+            int index = (int) (position >>> 3);
+            int next = index + 8;
+            long word = WordBitReader.loadWord(data, index, end);
+            long extra = next < end ? Byte.toUnsignedLong(data[next]) : 0;
+            for (int o = (int) (position & 7); o < 8 && position + bits <= toBit; o++, position++) {
+                long window = o == 0 ? word : (word << o) | (extra >>> (8 - o));
+                if (window >>> (64 - prefixBits) == prefix && (bits <= 64 || WordBitReader.matchesBytes(data, end, position, pattern))) {
+                    return position;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Boyer-Moore-Horspool search for the (byte-aligned) sync word
+     */
+    private int indexOf(byte[] data, int from, int to) {
+        final byte[] pattern = this.pattern;
+        final int last = pattern.length - 1;
+        for (int i = from; i + last < to; i += skip[Byte.toUnsignedInt(data[i + last])]) {
+            if (data[i + last] == pattern[last] && Arrays.equals(data, i, i + last, pattern, 0, last)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean find(IBitReader reader) {
+        if (reader instanceof BitReader) {
+            BitReader r = (BitReader) reader;
+            return find(reader, r.getPosition(), r.getData(), (long) r.getEndIndex() << 3);
+        }
+        if (reader instanceof WordBitReader) {
+            WordBitReader r = (WordBitReader) reader;
+            return find(reader, r.getPosition(), r.getData(), r.getLimit());
+        }
+        if (reader instanceof AbstractBitReader) {
+            return find((AbstractBitReader) reader);
+        }
+        return findSlow(reader);
+    }
+
+    private boolean find(IBitReader reader, long position, byte[] data, long end) {
+        long ret = indexOf(data, position, end);
+        reader.skipBits((ret < 0 ? end : ret) - position);
+        return ret >= 0;
+    }
+
+    /**
+     * Scans 64-bit windows peeked from the reader, used for readers without a backing array
+     */
+    private boolean find(AbstractBitReader reader) {
+        final int step = aligned ? 8 : 1;
+        if (aligned && reader.getBitIndex() != 0) {
+            long available = reader.available(8);
+            if (available < 8 - reader.getBitIndex()) {
+                reader.skipBits(available);
+                return false;
+            }
+            reader.finishByte();
+        }
+        while (true) {
+            long available = reader.available(Math.max(64, bits));
+            if (available < bits) {
+                reader.skipBits(available);
+                return false;
+            }
+            int width = (int) Math.min(64, available);
+            long window = reader.peekLong(width) << (64 - width);
+            int s = 0;
+            for (; s + prefixBits <= width; s += step) {
+                if ((window << s) >>> (64 - prefixBits) == prefix) {
+                    reader.skipBits(s);
+                    if (bits <= 64 || reader.matchesBytes(pattern)) {
+                        return true;
+                    }
+                    s = -1;
+                    break;
+                }
+            }
+            reader.skipBits(s < 0 ? step : s);
+        }
+    }
+
+    /**
+     * Checks every candidate position one by one, used for unknown readers
+     */
+    private boolean findSlow(IBitReader reader) {
+        final int step = aligned ? 8 : 1;
+        try {
+            if (aligned) {
+                reader.finishByte();
+            }
+            while (!(bits <= 64 ? reader.matches(prefix, prefixBits) : reader.matchesBytes(pattern))) {
+                reader.skipBits(step);
+            }
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,192 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+import nl.elec332.lib.bitdecoder.api.ITypedDecoder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Decodes a flat program of fixed-width parameters straight into objects.
+ * Values are read as raw bits into a long and converted by method handles, so primitives never get boxed
+ * (unless the target itself takes boxed values).
+ */
+final class TypedDecoder<T> implements ITypedDecoder<T> {
+
+    private TypedDecoder(FieldProgram fields, MethodHandle factory, MethodHandle constructor, MethodHandle[] setters) {
+        this.fields = fields;
+        this.factory = factory;
+        this.constructor = constructor;
+        this.setters = setters;
+    }
+
+    private static final MethodHandle READ_RAW;
+    private static final MethodHandle INT_BITS_TO_FLOAT;
+    private static final MethodHandle LONG_BITS_TO_DOUBLE;
+
+    private final FieldProgram fields;
+    private final MethodHandle factory;
+    private final MethodHandle constructor;
+    private final MethodHandle[] setters;
+
+    static <T> TypedDecoder<T> forFactory(FieldProgram fields, MethodHandle factory) {
+        if (factory.type().parameterCount() != fields.code.length) {
+            throw new IllegalArgumentException("Factory takes " + factory.type().parameterCount() + " parameters, spec has " + fields.code.length);
+        }
+        try {
+            return new TypedDecoder<>(fields, adaptFactory(fields, factory), null, null);
+        } catch (WrongMethodTypeException e) {
+            throw new IllegalArgumentException("Factory cannot accept the parameters of this spec", e);
+        }
+    }
+
+    static <T> TypedDecoder<T> forType(FieldProgram fields, MethodHandles.Lookup lookup, Class<T> type) {
+        for (Constructor<?> c : type.getDeclaredConstructors()) {
+            if (c.getParameterCount() != fields.code.length || c.getParameterCount() == 0) {
+                continue;
+            }
+            try {
+                return new TypedDecoder<>(fields, adaptFactory(fields, lookup.unreflectConstructor(c)), null, null);
+            } catch (IllegalAccessException | WrongMethodTypeException e) {
+                //Try the next one
+            }
+        }
+        MethodHandle constructor;
+        try {
+            constructor = lookup.findConstructor(type, MethodType.methodType(void.class)).asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("No usable constructor found for " + type.getName(), e);
+        }
+        MethodHandle[] setters = new MethodHandle[fields.code.length];
+        for (int i = 0; i < setters.length; i++) {
+            setters[i] = findSetter(lookup, type, fields.names[i], fields.code[i] >>> 8);
+        }
+        return new TypedDecoder<>(fields, null, constructor, setters);
+    }
+
+    @Override
+    public T decode(byte[] data, int byteIndex) {
+        return decode(new WordBitReader(data, byteIndex));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T decode(IBitReader reader) {
+        final int[] code = fields.code;
+        try {
+            if (factory != null) {
+                return (T) (Object) factory.invokeExact(reader);
+            }
+            Object ret = (Object) constructor.invokeExact();
+            for (int i = 0; i < code.length; i++) {
+                long value = FieldProgram.readRaw(reader, code[i] >>> 8, code[i] & 0xFF);
+                if (setters[i] != null) {
+                    setters[i].invokeExact(ret, value);
+                }
+            }
+            return (T) ret;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Turns a handle taking every parameter into a handle of type {@code (IBitReader)Object},
+     * every parameter is read from the same reader by its own combiner.
+     * The combiners are folded in one at a time (last parameter first), so they always run in parameter order.
+     */
+    private static MethodHandle adaptFactory(FieldProgram fields, MethodHandle factory) {
+        MethodType type = factory.type();
+        MethodHandle ret = factory.asType(type.changeReturnType(Object.class));
+        ret = MethodHandles.dropArguments(ret, type.parameterCount(), IBitReader.class);
+        for (int i = fields.code.length - 1; i >= 0; i--) {
+            int fieldType = fields.code[i] >>> 8;
+            MethodHandle read = MethodHandles.insertArguments(READ_RAW, 1, fieldType, fields.code[i] & 0xFF);
+            read = MethodHandles.filterReturnValue(read, converter(fieldType)).asType(MethodType.methodType(type.parameterType(i), IBitReader.class));
+            ret = MethodHandles.foldArguments(ret, i, read);
+        }
+        return ret;
+    }
+
+    /**
+     * Finds a setter or field for the provided parameter, and turns it into a handle of type {@code (Object, long)void}
+     */
+    private static MethodHandle findSetter(MethodHandles.Lookup lookup, Class<?> type, String name, int fieldType) {
+        if (name.isEmpty()) {
+            return null;
+        }
+        String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Method m : c.getDeclaredMethods()) {
+                if (m.getName().equals(setterName) && m.getParameterCount() == 1) {
+                    MethodHandle ret = adaptSetter(() -> lookup.unreflect(m), fieldType);
+                    if (ret != null) {
+                        return ret;
+                    }
+                }
+            }
+            for (Field f : c.getDeclaredFields()) {
+                if (f.getName().equals(name)) {
+                    MethodHandle ret = adaptSetter(() -> lookup.unreflectSetter(f), fieldType);
+                    if (ret != null) {
+                        return ret;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static MethodHandle adaptSetter(HandleSupplier handle, int fieldType) {
+        try {
+            MethodHandle setter = handle.get();
+            setter = setter.asType(setter.type().changeParameterType(0, Object.class).changeReturnType(void.class));
+            MethodHandle filter = converter(fieldType).asType(MethodType.methodType(setter.type().parameterType(1), long.class));
+            return MethodHandles.filterArguments(setter, 1, filter);
+        } catch (IllegalAccessException | WrongMethodTypeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return A handle converting raw bits to the Java type of the provided parameter type
+     */
+    private static MethodHandle converter(int fieldType) {
+        MethodHandle identity = MethodHandles.identity(long.class);
+        switch (fieldType) {
+            case FieldProgram.FLOAT:
+                return MethodHandles.filterReturnValue(MethodHandles.explicitCastArguments(identity, MethodType.methodType(int.class, long.class)), INT_BITS_TO_FLOAT);
+            case FieldProgram.DOUBLE:
+                return LONG_BITS_TO_DOUBLE;
+            default:
+                return MethodHandles.explicitCastArguments(identity, MethodType.methodType(FieldProgram.javaType(fieldType), long.class));
+        }
+    }
+
+    private interface HandleSupplier {
+
+        MethodHandle get() throws IllegalAccessException;
+
+    }
+
+    static {
+        try {
+            READ_RAW = MethodHandles.lookup().findStatic(FieldProgram.class, "readRaw", MethodType.methodType(long.class, IBitReader.class, int.class, int.class));
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            INT_BITS_TO_FLOAT = lookup.findStatic(Float.class, "intBitsToFloat", MethodType.methodType(float.class, int.class));
+            LONG_BITS_TO_DOUBLE = lookup.findStatic(Double.class, "longBitsToDouble", MethodType.methodType(double.class, long.class));
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
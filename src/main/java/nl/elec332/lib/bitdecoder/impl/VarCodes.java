@@ -0,0 +1,57 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Decodes variable-length codes from the next 64 bits of a reader (MSB first, zero-padded past the end),
+ * using leading-zero counts instead of reading one bit or byte at a time.
+ * Codes that do not fit in a single word are left to the bit-by-bit implementations in {@link nl.elec332.lib.bitdecoder.api.IBitReader}.
+ */
+final class VarCodes {
+
+    private VarCodes() {
+        throw new UnsupportedOperationException();
+    }
+
+    private static final long CONTINUATION_BITS = 0x8080808080808080L;
+
+    /**
+     * @return The amount of bytes of the LEB128 varint at the start of the word, or 0 if it's longer than 8 bytes
+     */
+    static int varIntLength(long word) {
+        long stop = ~word & CONTINUATION_BITS;
+        return stop == 0 ? 0 : (Long.numberOfLeadingZeros(stop) >>> 3) + 1;
+    }
+
+    /**
+     * @return The value of the LEB128 varint at the start of the word, see {@link #varIntLength(long)}
+     */
+    static long varInt(long word, int length) {
+        //Move the first byte to the least significant position, and drop the bytes after the varint
+        long x = Long.reverseBytes(word) & (-1L >>> (64 - (length << 3)));
+        return (x & 0x7FL)
+                | ((x >>> 1) & (0x7FL << 7))
+                | ((x >>> 2) & (0x7FL << 14))
+                | ((x >>> 3) & (0x7FL << 21))
+                | ((x >>> 4) & (0x7FL << 28))
+                | ((x >>> 5) & (0x7FL << 35))
+                | ((x >>> 6) & (0x7FL << 42))
+                | ((x >>> 7) & (0x7FL << 49));
+    }
+
+    /**
+     * @return The length in bits of the Exp-Golomb code at the start of the word, or 0 if it's longer than 63 bits
+     */
+    static int expGolombLength(long word) {
+        int zeros = Long.numberOfLeadingZeros(word);
+        return zeros > 31 ? 0 : 2 * zeros + 1;
+    }
+
+    /**
+     * @return The value of the (unsigned) Exp-Golomb code at the start of the word, see {@link #expGolombLength(long)}
+     */
+    static long expGolomb(long word, int length) {
+        return (word >>> (64 - length)) - 1;
+    }
+
+}
@@ -0,0 +1,331 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+import nl.elec332.lib.bitdecoder.api.IResettableBitReader;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Word-at-a-time reader for byte-arrays
+ */
+public class WordBitReader extends AbstractBitReader implements IResettableBitReader {
+
+    public WordBitReader(byte[] data, int startIndex) {
+        super(startIndex, data.length);
+        if (startIndex < 0 || startIndex >= data.length) {
+            throw new ArrayIndexOutOfBoundsException(startIndex);
+        }
+        this.data = data;
+        this.end = data.length;
+    }
+
+    /**
+     * Reads the bits from the (absolute) start bit up to the (exclusive) end bit, used for slices
+     */
+    public WordBitReader(byte[] data, long startBit, long endBit) {
+        super(0, 0);
+        this.data = data;
+        this.end = (int) ((endBit + 7) >>> 3);
+        resetBits(startBit, endBit);
+    }
+
+    private static final VarHandle LONG_VIEW;
+
+    private byte[] data;
+    private int end;
+
+    @Override
+    public WordBitReader reset(byte[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > data.length) {
+            throw new ArrayIndexOutOfBoundsException(offset + length);
+        }
+        this.data = data;
+        this.end = offset + length;
+        reset(offset, end);
+        return this;
+    }
+
+    byte[] getData() {
+        return data;
+    }
+
+    int getEndIndex() {
+        return end;
+    }
+
+    @Override
+    protected long loadWord(long index) {
+        return loadWord(data, (int) index, end);
+    }
+
+    @Override
+    protected byte loadByte(long index) {
+        return data[(int) index];
+    }
+
+    @Override
+    protected void copyBytes(long index, byte[] dest, int offset, int length) {
+        if (index + length > end) {
+            throw new ArrayIndexOutOfBoundsException((int) index + length);
+        }
+        System.arraycopy(data, (int) index, dest, offset, length);
+    }
+
+    @Override
+    public void readBytes(byte[] dest, int offset, int length) {
+        long position = getPosition();
+        if ((position & 7) == 0 || ((long) length << 3) > getLimit() - position) {
+            super.readBytes(dest, offset, length);
+            return;
+        }
+        copyBits(data, position, dest, offset, length);
+        skipBits((long) length << 3);
+    }
+
+    @Override
+    public void readPacked(int[] dest, int offset, int count, int bits) {
+        long position = getPosition();
+        if (bits < 1 || bits > 32 || (long) count * bits > getLimit() - position) {
+            super.readPacked(dest, offset, count, bits);
+            return;
+        }
+        unpack(data, end, position, dest, offset, count, bits);
+        skipBits((long) count * bits);
+    }
+
+    @Override
+    public void readPacked(long[] dest, int offset, int count, int bits) {
+        long position = getPosition();
+        if (bits < 1 || bits > 64 || (long) count * bits > getLimit() - position) {
+            super.readPacked(dest, offset, count, bits);
+            return;
+        }
+        unpack(data, end, position, dest, offset, count, bits);
+        skipBits((long) count * bits);
+    }
+
+    @Override
+    public boolean matchesBytes(byte[] pattern) {
+        if (getPosition() + ((long) pattern.length << 3) > getLimit()) {
+            return false;
+        }
+        return matchesBytes(data, end, getPosition(), pattern);
+    }
+
+    @Override
+    protected IBitReader sliceBits(long position, long bits) {
+        return new WordBitReader(data, position, position + bits);
+    }
+
+    @Override
+    protected ByteBuffer sliceBytes(long index, int length) {
+        return ByteBuffer.wrap(data, (int) index, length).slice();
+    }
+
+    /**
+     * Loads 8 bytes in big-endian order, bytes at or past the end index will be read as zero
+     *
+     * @param data  The data
+     * @param index The index of the first byte
+     * @param end   The end index of the data
+     * @return The loaded word
+     */
+    static long loadWord(byte[] data, int index, int end) {
+        if (index + 8 <= end) {
+            return (long) LONG_VIEW.get(data, index);
+        }
+        long ret = 0;
+        for (int i = index; i < index + 8; i++) {
+            ret = (ret << 8) | (i < end ? Byte.toUnsignedLong(data[i]) : 0);
+        }
+        return ret;
+    }
+
+    /**
+     * Loads the 64 bits starting at a (possibly unaligned) bit position, bits at or past the end index will be read as zero
+     *
+     * @param data     The data
+     * @param end      The end index of the data
+     * @param position The absolute bit position of the first bit
+     * @return The loaded bits
+     */
+    static long loadBits(byte[] data, int end, long position) {
+        int index = (int) (position >>> 3);
+        int o = (int) (position & 7);
+        long ret = loadWord(data, index, end) << o;
+        if (o != 0 && index + 8 < end) {
+            ret |= Byte.toUnsignedLong(data[index + 8]) >>> (8 - o);
+        }
+        return ret;
+    }
+
+    /**
+     * Stores 8 bytes in big-endian order
+     *
+     * @param data  The data
+     * @param index The index of the first byte
+     * @param word  The word to store
+     */
+    static void storeWord(byte[] data, int index, long word) {
+        LONG_VIEW.set(data, index, word);
+    }
+
+    /**
+     * Copies bytes starting at a (possibly unaligned) bit position.
+     * Unaligned bytes are copied 8 at a time by shift-merging two words, aligned bytes with a single {@link System#arraycopy}.
+     * The caller must make sure all bits are available.
+     *
+     * @param data     The data
+     * @param position The absolute bit position of the first byte to copy
+     * @param dest     The destination array
+     * @param offset   The start index in the destination array
+     * @param length   The amount of bytes to copy
+     */
+    static void copyBits(byte[] data, long position, byte[] dest, int offset, int length) {
+        int index = (int) (position >>> 3);
+        int o = (int) (position & 7);
+        if (o == 0) {
+            System.arraycopy(data, index, dest, offset, length);
+            return;
+        }
+        int i = 0;
+        //The last byte of every chunk is followed by at least one more byte with bits of the same chunk
+        for (; i + 8 <= length; i += 8) {
+            long word = ((long) LONG_VIEW.get(data, index + i) << o) | (Byte.toUnsignedLong(data[index + i + 8]) >>> (8 - o));
+            LONG_VIEW.set(dest, offset + i, word);
+        }
+        for (; i < length; i++) {
+            dest[offset + i] = (byte) ((data[index + i] << o) | (Byte.toUnsignedInt(data[index + i + 1]) >>> (8 - o)));
+        }
+    }
+
+    /**
+     * Unpacks unsigned values of the same width, every value is extracted from a single (unaligned) word load.
+     * Byte-aligned values of 8, 12 and 16 bits are unpacked from whole bytes instead.
+     * The caller must make sure all bits are available.
+     *
+     * @param data     The data
+     * @param end      The end index of the data
+     * @param position The absolute bit position of the first value
+     * @param dest     The destination array
+     * @param offset   The start index in the destination array
+     * @param count    The amount of values
+     * @param bits     The width of every value {@code (1 - 32)}
+     */
+    static void unpack(byte[] data, int end, long position, int[] dest, int offset, int count, int bits) {
+        int index = (int) (position >>> 3);
+        if ((position & 7) == 0) {
+            switch (bits) {
+                case 8: {
+                    for (int i = 0; i < count; i++) {
+                        dest[offset + i] = Byte.toUnsignedInt(data[index + i]);
+                    }
+                    return;
+                }
+                case 12: {
+                    int i = 0;
+                    for (; i + 2 <= count; i += 2, index += 3) {
+                        int mid = Byte.toUnsignedInt(data[index + 1]);
+                        dest[offset + i] = (Byte.toUnsignedInt(data[index]) << 4) | (mid >>> 4);
+                        dest[offset + i + 1] = ((mid & 0xF) << 8) | Byte.toUnsignedInt(data[index + 2]);
+                    }
+                    if (i < count) {
+                        dest[offset + i] = (Byte.toUnsignedInt(data[index]) << 4) | (Byte.toUnsignedInt(data[index + 1]) >>> 4);
+                    }
+                    return;
+                }
+                case 16: {
+                    for (int i = 0; i < count; i++, index += 2) {
+                        dest[offset + i] = (Byte.toUnsignedInt(data[index]) << 8) | Byte.toUnsignedInt(data[index + 1]);
+                    }
+                    return;
+                }
+                default:
+                    break;
+            }
+        }
+        //A value of up to 32 bits never spans more than the 8 bytes of a word, regardless of its bit-index
+        int shift = 64 - bits;
+        int i = 0;
+        for (; i < count && index + 8 <= end; i++) {
+            dest[offset + i] = (int) (((long) LONG_VIEW.get(data, index) << (position & 7)) >>> shift);
+            position += bits;
+            index = (int) (position >>> 3);
+        }
+        for (; i < count; i++) {
+            dest[offset + i] = (int) ((loadWord(data, index, end) << (position & 7)) >>> shift);
+            position += bits;
+            index = (int) (position >>> 3);
+        }
+    }
+
+    /**
+     * Unpacks unsigned values of the same width, values of up to 57 bits are extracted from a single (unaligned) word load.
+     * The caller must make sure all bits are available.
+     *
+     * @param data     The data
+     * @param end      The end index of the data
+     * @param position The absolute bit position of the first value
+     * @param dest     The destination array
+     * @param offset   The start index in the destination array
+     * @param count    The amount of values
+     * @param bits     The width of every value {@code (1 - 64)}
+     */
+    static void unpack(byte[] data, int end, long position, long[] dest, int offset, int count, int bits) {
+        if (bits > 57) {
+            for (int i = 0; i < count; i++, position += bits) {
+                dest[offset + i] = FieldProgram.extractRaw(data, end, position, FieldProgram.UNSIGNED_LONG, bits);
+            }
+            return;
+        }
+        int shift = 64 - bits;
+        for (int i = 0; i < count; i++, position += bits) {
+            int index = (int) (position >>> 3);
+            long word = index + 8 <= end ? (long) LONG_VIEW.get(data, index) : loadWord(data, index, end);
+            dest[offset + i] = (word << (position & 7)) >>> shift;
+        }
+    }
+
+    /**
+     * Checks if the bytes at the provided bit position match the pattern,
+     * aligned positions are compared with {@link Arrays#equals(byte[], int, int, byte[], int, int)},
+     * unaligned positions are compared 8 bytes at a time
+     *
+     * @param data     The data
+     * @param end      The end index of the data
+     * @param position The absolute bit position of the first byte to compare
+     * @param pattern  The bytes to match
+     * @return Whether the data matches the pattern, false if the data ends before the pattern does
+     */
+    static boolean matchesBytes(byte[] data, int end, long position, byte[] pattern) {
+        int length = pattern.length;
+        if (position < 0 || position + ((long) length << 3) > (long) end << 3) {
+            return false;
+        }
+        int index = (int) (position >>> 3);
+        int o = (int) (position & 7);
+        if (o == 0) {
+            return Arrays.equals(data, index, index + length, pattern, 0, length);
+        }
+        for (int i = 0; i < length; i += 8) {
+            int next = index + i + 8;
+            long word = (loadWord(data, index + i, end) << o) | (Byte.toUnsignedLong(next < end ? data[next] : 0) >>> (8 - o));
+            long mask = -1L << (64 - (Math.min(8, length - i) << 3));
+            if (((word ^ loadWord(pattern, i, length)) & mask) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static {
+        LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    }
+
+}
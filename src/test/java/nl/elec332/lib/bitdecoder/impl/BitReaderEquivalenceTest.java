@@ -0,0 +1,246 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Runs the same random sequences of reads on every reader implementation,
+ * all of them must give the same results as {@link BitReader}.
+ */
+public class BitReaderEquivalenceTest {
+
+    private static final int SEQUENCES = 500;
+    private static final int OPERATIONS = 100;
+    private static final int OPERATION_TYPES = 18;
+
+    @Test
+    public void readersGiveTheSameResults() {
+        for (int seed = 0; seed < SEQUENCES; seed++) {
+            Random random = new Random(seed);
+            byte[] data = new byte[64 + random.nextInt(448)];
+            random.nextBytes(data);
+            int start = random.nextInt(8);
+            List<int[]> operations = operations(random, (long) (data.length - start) << 3);
+            List<Object> expected = run(new BitReader(data, start), operations);
+            for (IBitReader reader : readers(data, start)) {
+                assertEquals(expected, run(reader, operations), reader.getClass().getSimpleName() + ", seed " + seed);
+            }
+        }
+    }
+
+    /**
+     * @return Every other reader implementation, starting at the provided byte
+     */
+    static List<IBitReader> readers(byte[] data, int start) {
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data).clear();
+        StreamBitReader stream = new StreamBitReader(new TrickleInputStream(data), 16);
+        stream.skipBytes(start);
+        return List.of(
+                new WordBitReader(data, start),
+                new ByteBufferBitReader(ByteBuffer.wrap(data), start),
+                new ByteBufferBitReader(direct, start),
+                stream
+        );
+    }
+
+    /**
+     * Generates operations (an opcode and an argument) that never read past the end of the data
+     */
+    private static List<int[]> operations(Random random, long available) {
+        List<int[]> ret = new ArrayList<>();
+        long position = 0;
+        while (ret.size() < OPERATIONS) {
+            int op = random.nextInt(OPERATION_TYPES);
+            int arg;
+            long bits;
+            switch (op) {
+                case 0:
+                    arg = 1 + random.nextInt(6);
+                    bits = arg;
+                    break;
+                case 1:
+                    arg = 1 + random.nextInt(12);
+                    bits = arg;
+                    break;
+                case 2:
+                    arg = 1 + random.nextInt(24);
+                    bits = arg;
+                    break;
+                case 3:
+                    arg = 1 + random.nextInt(48);
+                    bits = arg;
+                    break;
+                case 4:
+                    arg = 0;
+                    bits = 8;
+                    break;
+                case 5:
+                    arg = random.nextInt(24);
+                    bits = arg * 8L;
+                    break;
+                case 6:
+                    arg = 0;
+                    bits = (8 - (position & 7)) & 7;
+                    break;
+                case 7:
+                case 8:
+                case 9:
+                    arg = 1 + random.nextInt(64);
+                    bits = arg;
+                    break;
+                case 10:
+                    arg = 0;
+                    bits = 32;
+                    break;
+                case 11:
+                    arg = 0;
+                    bits = 64;
+                    break;
+                case 12:
+                    arg = random.nextInt(24);
+                    bits = arg * 8L;
+                    break;
+                case 13:
+                case 14:
+                    arg = 1 + random.nextInt(64);
+                    bits = 0;
+                    break;
+                case 15:
+                    arg = random.nextInt(200);
+                    bits = arg;
+                    break;
+                case 16:
+                    arg = random.nextInt(100);
+                    bits = arg;
+                    break;
+                case 17:
+                    arg = random.nextInt(10) << 8 | 1 + random.nextInt(32);
+                    bits = (long) (arg >>> 8) * (arg & 0xFF);
+                    break;
+                default:
+                    throw new IllegalStateException();
+            }
+            //Peeks need their bits to be available, but don't consume them
+            if (Math.max(bits, op == 13 || op == 14 ? arg : 0) > available - position) {
+                break;
+            }
+            position += bits;
+            ret.add(new int[]{op, arg});
+        }
+        return ret;
+    }
+
+    /**
+     * Applies the operations to the reader
+     *
+     * @return The result and position after every operation
+     */
+    private static List<Object> run(IBitReader reader, List<int[]> operations) {
+        List<Object> ret = new ArrayList<>();
+        for (int[] operation : operations) {
+            int arg = operation[1];
+            switch (operation[0]) {
+                case 0:
+                    ret.add(reader.readFewBits(arg));
+                    break;
+                case 1:
+                    ret.add(reader.readShortBits(arg));
+                    break;
+                case 2:
+                    ret.add(reader.readBits(arg));
+                    break;
+                case 3:
+                    ret.add(reader.readManyBits(arg));
+                    break;
+                case 4:
+                    ret.add(reader.readByte());
+                    break;
+                case 5:
+                    ret.add(Arrays.toString(reader.readBytes(arg)));
+                    break;
+                case 6:
+                    reader.finishByte();
+                    break;
+                case 7:
+                    ret.add(reader.readLong(arg));
+                    break;
+                case 8:
+                    ret.add(reader.readSignedBits(arg));
+                    break;
+                case 9:
+                    ret.add(reader.readBitsLE(arg));
+                    break;
+                case 10:
+                    ret.add(Float.floatToRawIntBits(reader.readFloat()));
+                    break;
+                case 11:
+                    ret.add(Double.doubleToRawLongBits(reader.readDouble()));
+                    break;
+                case 12:
+                    ByteBuffer slice = reader.readSlice(arg);
+                    byte[] bytes = new byte[slice.remaining()];
+                    slice.get(bytes);
+                    ret.add(Arrays.toString(bytes));
+                    break;
+                case 13:
+                    ret.add(reader.peekLong(arg));
+                    break;
+                case 14:
+                    ret.add(reader.matches(reader.peekLong(arg) ^ (arg & 1), arg));
+                    break;
+                case 15:
+                    ret.add(readAll(reader.slice(arg), arg));
+                    break;
+                case 16:
+                    reader.skipBits(arg);
+                    break;
+                case 17:
+                    long[] packed = new long[arg >>> 8];
+                    reader.readPacked(packed, 0, packed.length, arg & 0xFF);
+                    ret.add(Arrays.toString(packed));
+                    break;
+                default:
+                    throw new IllegalStateException();
+            }
+            ret.add(reader.getByteIndex() + ":" + reader.getBitIndex());
+        }
+        return ret;
+    }
+
+    private static String readAll(IBitReader reader, int bits) {
+        StringBuilder ret = new StringBuilder();
+        for (; bits > 0; bits -= 64) {
+            ret.append(reader.readLong(Math.min(64, bits))).append(',');
+        }
+        return ret.toString();
+    }
+
+    /**
+     * Stream that returns at most 3 bytes per read, so stream readers have to refill all the time
+     */
+    static final class TrickleInputStream extends ByteArrayInputStream {
+
+        TrickleInputStream(byte[] data) {
+            super(data);
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, 3));
+        }
+
+    }
+
+}
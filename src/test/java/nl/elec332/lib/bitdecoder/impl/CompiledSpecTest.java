@@ -0,0 +1,103 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.java.tree.INamedTreePart;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Checks that compiled fixed-width parameters give the same values as decoding them parameter by parameter.
+ */
+public class CompiledSpecTest {
+
+    private static final String[] NAMES = {"u3", "s7", "u31", "u40", "s33", "s64", "flag", "float", "double", "u64"};
+    private static final int PACKET_SIZE = 48;
+    private static final int PACKETS = 100;
+
+    @Test
+    public void programsMatchParameterFunctions() {
+        IDynamicPacketSpec expected = functions();
+        IDynamicPacketSpec compiled = fixed(DynamicPacketSpec.builder()).build();
+        for (byte[] packet : packets()) {
+            assertTrees(expected.decode(packet), compiled.decode(packet));
+        }
+    }
+
+    @Test
+    public void generatedDecodersMatchParameterFunctions() {
+        IDynamicPacketSpec expected = functions();
+        IDynamicPacketSpec generated = fixed(DynamicPacketSpec.builder()).setGenerateBytecode(true).build();
+        for (byte[] packet : packets()) {
+            assertTrees(expected.decode(packet), generated.decode(packet));
+        }
+    }
+
+    @Test
+    public void copiedBuildersKeepTheirSettings() {
+        IDynamicPacketSpec.Builder builder = DynamicPacketSpec.builder()
+                .setName("packet")
+                .setGenerateBytecode(true)
+                .addUnsigned("a", 12);
+        IDynamicPacketSpec spec = builder.copy().build();
+        assertTrue(spec.hasName());
+        assertEquals("packet", spec.getName());
+        assertEquals(0x10, (int) spec.decode(new byte[]{1, 2}).get("a"));
+    }
+
+    /**
+     * Adds the fixed-width parameters of {@link #NAMES}
+     */
+    private static IDynamicPacketSpec.Builder fixed(IDynamicPacketSpec.Builder builder) {
+        return builder.addUnsigned("u3", 3)
+                .addSigned("s7", 7)
+                .addUnsigned("u31", 31)
+                .addUnsigned("u40", 40)
+                .addSigned("s33", 33)
+                .addSigned("s64", 64)
+                .addFlag("flag")
+                .addFloat("float")
+                .addDouble("double")
+                .addUnsigned("u64", 64);
+    }
+
+    /**
+     * Same parameters as {@link #fixed(IDynamicPacketSpec.Builder)}, read by plain parameter functions
+     */
+    private static IDynamicPacketSpec functions() {
+        return DynamicPacketSpec.builder()
+                .addParameter("u3", r -> (int) r.readLong(3))
+                .addParameter("s7", r -> (int) r.readSignedBits(7))
+                .addParameter("u31", r -> (int) r.readLong(31))
+                .addParameter("u40", r -> r.readLong(40))
+                .addParameter("s33", r -> r.readSignedBits(33))
+                .addParameter("s64", r -> r.readSignedBits(64))
+                .addParameter("flag", IBitReader::readBit)
+                .addParameter("float", IBitReader::readFloat)
+                .addParameter("double", IBitReader::readDouble)
+                .addParameter("u64", r -> r.readLong(64))
+                .build();
+    }
+
+    private static void assertTrees(INamedTreePart expected, INamedTreePart actual) {
+        for (String name : NAMES) {
+            assertEquals((Object) expected.get(name), actual.get(name), name);
+        }
+    }
+
+    private static byte[][] packets() {
+        Random random = new Random(0);
+        byte[][] ret = new byte[PACKETS][PACKET_SIZE];
+        for (byte[] packet : ret) {
+            random.nextBytes(packet);
+        }
+        return ret;
+    }
+
+}
@@ -0,0 +1,102 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IDecodeListener;
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Checks the events a spec sends to its {@link IDecodeListener}, and the totals kept by {@link DecodeMetrics}.
+ */
+public class DecodeMetricsTest {
+
+    @Test
+    public void countsPacketsBitsBytesAndFailures() {
+        DecodeMetrics metrics = new DecodeMetrics();
+        IDynamicPacketSpec spec = spec().setListener(metrics).build();
+        spec.decode(new byte[]{1, 2, 3});
+        spec.decode(new byte[]{4, 5, 6});
+        assertThrows(RuntimeException.class, () -> spec.decode(new byte[]{7}));
+        assertEquals(2, metrics.getPackets());
+        assertEquals(2 * 13, metrics.getBits());
+        assertEquals(2 * 2, metrics.getBytes());
+        assertEquals(1, metrics.getFailures());
+        assertTrue(metrics.getParameterNanos().isEmpty());
+        assertTrue(metrics.getParameterCounts().isEmpty());
+
+        spec.decodeRecord(new byte[]{1, 2, 3}, 0);
+        assertEquals(3, metrics.getPackets());
+        metrics.reset();
+        assertEquals(0, metrics.getPackets());
+        assertEquals(0, metrics.getBits());
+        assertEquals(0, metrics.getFailures());
+    }
+
+    @Test
+    public void timesParametersOnlyWhenAsked() {
+        DecodeMetrics metrics = new DecodeMetrics(true);
+        IDynamicPacketSpec spec = spec().setListener(metrics).build();
+        for (int i = 0; i < 3; i++) {
+            spec.decode(new byte[]{1, 2, 3});
+        }
+        Map<String, Long> counts = metrics.getParameterCounts();
+        assertEquals(3, counts.size());
+        assertEquals(3, (long) counts.get("a"));
+        assertEquals(3, (long) counts.get("b"));
+        assertEquals(3, (long) counts.get("c"));
+        assertEquals(counts.keySet(), metrics.getParameterNanos().keySet());
+        assertEquals(3, metrics.getPackets());
+        assertEquals(3 * 13, metrics.getBits());
+    }
+
+    @Test
+    public void specsWithoutTimingAreCompiled() {
+        DynamicPacketSpec plain = (DynamicPacketSpec) spec().build();
+        DynamicPacketSpec counted = (DynamicPacketSpec) spec().setListener(new DecodeMetrics()).build();
+        DynamicPacketSpec timed = (DynamicPacketSpec) spec().setListener(new DecodeMetrics(true)).build();
+        assertEquals(1, plain.getReaders().size());
+        assertTrue(plain.getReaders().get(0) instanceof FieldProgram);
+        assertEquals(1, counted.getReaders().size());
+        assertTrue(counted.getReaders().get(0) instanceof FieldProgram);
+        assertEquals(3, timed.getReaders().size());
+        assertTrue(timed.getReaders().get(0) instanceof FieldProgram.Field);
+        assertEquals(16, (int) plain.decode(new byte[]{1, 2, 3}).get("b"));
+    }
+
+    @Test
+    public void copiedBuildersKeepTheirListener() {
+        AtomicLong bits = new AtomicLong();
+        IDynamicPacketSpec.Builder builder = DynamicPacketSpec.builder()
+                .setListener(new IDecodeListener() {
+
+                    @Override
+                    public void onPacketDecoded(IDynamicPacketSpec spec, long decoded) {
+                        bits.addAndGet(decoded);
+                    }
+
+                })
+                .addUnsigned("a", 12);
+        IDynamicPacketSpec spec = builder.copy().build();
+        spec.decode(new byte[]{1, 2});
+        assertEquals(12, bits.get());
+    }
+
+    /**
+     * 13 bits per packet
+     */
+    private static IDynamicPacketSpec.Builder spec() {
+        return DynamicPacketSpec.builder()
+                .addUnsigned("a", 4)
+                .addSigned("b", 8)
+                .addFlag("c");
+    }
+
+}
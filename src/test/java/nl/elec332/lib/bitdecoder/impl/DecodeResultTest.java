@@ -0,0 +1,76 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IDecodeResult;
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.java.tree.INamedTreePart;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Checks the position, spec path and reason of failed {@link IDynamicPacketSpec#tryDecode(byte[], int)} results.
+ */
+public class DecodeResultTest {
+
+    /**
+     * Packet "p" with a nested packet "n", 4 bytes in total
+     */
+    private static final IDynamicPacketSpec SPEC = DynamicPacketSpec.builder()
+            .setName("p")
+            .addUnsigned("a", 8)
+            .addNestedParameter(DynamicPacketSpec.builder()
+                    .setName("n")
+                    .addUnsigned("x", 8)
+                    .assertPreviousParameter(v -> (int) v < 100, "x too large")
+                    .addUnsigned("y", 16)
+                    .build())
+            .build();
+
+    @Test
+    public void successHasTheTreeAndEndPosition() {
+        IDecodeResult result = SPEC.tryDecode(new byte[]{1, 2, 3, 4, 5}, 0);
+        assertTrue(result.isSuccess());
+        assertEquals(4, result.getByteIndex());
+        assertEquals(0, result.getBitIndex());
+        assertEquals(0x0304, (int) ((INamedTreePart) result.getTree().get("n")).get("y"));
+    }
+
+    @Test
+    public void truncatedPacketFails() {
+        IDecodeResult result = SPEC.tryDecode(new byte[]{0, 1, 2, 3}, 1);
+        assertFalse(result.isSuccess());
+        assertNull(result.getTree());
+        assertEquals(3, result.getByteIndex());
+        assertEquals(0, result.getBitIndex());
+        assertEquals("p/n", result.getPath());
+        assertEquals("Not enough data available", result.getReason());
+    }
+
+    @Test
+    public void failedAssertionFails() {
+        IDecodeResult result = SPEC.tryDecode(new byte[]{1, (byte) 200, 3, 4}, 0);
+        assertFalse(result.isSuccess());
+        assertEquals(2, result.getByteIndex());
+        assertEquals(0, result.getBitIndex());
+        assertEquals("p/n", result.getPath());
+        assertEquals("x too large", result.getReason());
+    }
+
+    @Test
+    public void indexOutOfRangeFails() {
+        byte[] data = {1, 2, 3, 4};
+        for (int index : new int[]{data.length, data.length + 1, -1}) {
+            IDecodeResult result = SPEC.tryDecode(data, index);
+            assertFalse(result.isSuccess());
+            assertEquals(index, result.getByteIndex());
+            assertEquals("p", result.getPath());
+            assertEquals("Not enough data available", result.getReason());
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.java.tree.INamedTreePart;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Checks the static offsets of fixed-width parameters, and that extracting a single parameter
+ * gives the same value as a sequential decode.
+ */
+public class FieldLayoutTest {
+
+    private static final String[] NAMES = {"u3", "s7", "u31", "u40", "s33", "s64", "flag", "float", "double", "u64"};
+    private static final int[] BITS = {3, 7, 31, 40, 33, 64, 1, 32, 64, 64};
+
+    @Test
+    public void fixedSpecsHaveASizeAndOffsets() {
+        IDynamicPacketSpec spec = fixed(DynamicPacketSpec.builder()).addFixedBytes("bytes", 3).build();
+        long offset = 0;
+        for (int i = 0; i < NAMES.length; i++) {
+            assertEquals(offset, spec.getBitOffset(NAMES[i]), NAMES[i]);
+            offset += BITS[i];
+        }
+        assertEquals(offset, spec.getBitOffset("bytes"));
+        assertEquals(offset + 24, spec.fixedSizeBits());
+        assertEquals(-1, spec.getBitOffset("missing"));
+    }
+
+    @Test
+    public void variableWidthStepsEndTheLayout() {
+        IDynamicPacketSpec spec = DynamicPacketSpec.builder()
+                .addUnsigned("a", 5)
+                .addSigned("b", 9)
+                .addParameter("variable", r -> r.readBits(r.readBits(3)))
+                .addUnsigned("c", 8)
+                .build();
+        assertEquals(-1, spec.fixedSizeBits());
+        assertEquals(0, spec.getBitOffset("a"));
+        assertEquals(5, spec.getBitOffset("b"));
+        assertEquals(-1, spec.getBitOffset("variable"));
+        assertEquals(-1, spec.getBitOffset("c"));
+        byte[] data = {1, 2, 3, 4};
+        assertEquals((Object) spec.decode(data).get("b"), spec.extract(data, 0, "b"));
+        assertThrows(IllegalArgumentException.class, () -> spec.extract(data, 0, "c"));
+    }
+
+    @Test
+    public void extractMatchesDecode() {
+        IDynamicPacketSpec spec = fixed(DynamicPacketSpec.builder())
+                .addFixedBytes("bytes", 3)
+                .addParameter("variable", r -> r.readBits(8))
+                .build();
+        Random random = new Random(0);
+        byte[] data = new byte[64];
+        for (int i = 0; i < 100; i++) {
+            random.nextBytes(data);
+            int start = random.nextInt(8);
+            INamedTreePart tree = spec.decode(data, start);
+            for (String name : NAMES) {
+                assertEquals((Object) tree.get(name), spec.extract(data, start, name), name);
+            }
+            assertArrayEquals((byte[]) tree.get("bytes"), (byte[]) spec.extract(data, start, "bytes"));
+        }
+    }
+
+    /**
+     * Adds the parameters of {@link #NAMES}, with the widths of {@link #BITS}
+     */
+    private static IDynamicPacketSpec.Builder fixed(IDynamicPacketSpec.Builder builder) {
+        return builder.addUnsigned("u3", 3)
+                .addSigned("s7", 7)
+                .addUnsigned("u31", 31)
+                .addUnsigned("u40", 40)
+                .addSigned("s33", 33)
+                .addSigned("s64", 64)
+                .addFlag("flag")
+                .addFloat("float")
+                .addDouble("double")
+                .addUnsigned("u64", 64);
+    }
+
+}
@@ -0,0 +1,59 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.bitdecoder.api.ILazyPacket;
+import nl.elec332.lib.java.tree.INamedTreePart;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Checks that lazily resolved parameters are equal to the parameters of a full decode, in any order of access.
+ */
+public class LazyPacketTest {
+
+    private static final String[] NAMES = {"a", "b", "variable", "c", "d"};
+
+    private static final IDynamicPacketSpec SPEC = DynamicPacketSpec.builder()
+            .addUnsigned("a", 7)
+            .addSigned("b", 33)
+            .addParameter("variable", r -> r.readBits(r.readBits(3)))
+            .addUnsigned("c", 12)
+            .addFlag("d")
+            .build();
+
+    @Test
+    public void lazyPacketsMatchDecode() {
+        Random random = new Random(0);
+        byte[] data = new byte[16];
+        for (int i = 0; i < 100; i++) {
+            random.nextBytes(data);
+            INamedTreePart tree = SPEC.decode(data);
+            ILazyPacket lazy = SPEC.decodeLazy(data, 0);
+            //Start somewhere in the middle, every packet resolves in a different order
+            for (int j = 0; j < NAMES.length; j++) {
+                String name = NAMES[(i + j) % NAMES.length];
+                assertEquals((Object) tree.get(name), lazy.get(name), name);
+            }
+        }
+    }
+
+    @Test
+    public void lazyPacketsKeepReaderProperties() {
+        IDynamicPacketSpec spec = DynamicPacketSpec.builder()
+                .addUnsigned("a", 8)
+                .readData(r -> r.setProperty("skip", 1))
+                .addUnsigned("b", 8)
+                .discardBytes(r -> (Integer) r.getProperty("skip"))
+                .addUnsigned("c", 8)
+                .build();
+        byte[] data = {1, 2, 3, 4};
+        assertEquals(4, (int) spec.decode(data).get("c"));
+        assertEquals(4, (int) spec.decodeLazy(data, 0).get("c"));
+    }
+
+}
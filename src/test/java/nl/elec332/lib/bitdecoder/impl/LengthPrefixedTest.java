@@ -0,0 +1,84 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.DecodeException;
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.java.tree.INamedTreePart;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Checks that nested specs and regions stay within their length prefix, and that the parent continues after it.
+ */
+public class LengthPrefixedTest {
+
+    private static final IDynamicPacketSpec INNER = DynamicPacketSpec.builder()
+            .addUnsigned("x", 8)
+            .build();
+
+    private static final IDynamicPacketSpec SPEC = DynamicPacketSpec.builder()
+            .addLengthPrefixed("inner", 8, INNER)
+            .addUnsigned("after", 8)
+            .build();
+
+    @Test
+    public void parentContinuesAfterTheRegion() {
+        //The nested spec only reads 1 of the 3 bytes
+        byte[] data = {3, (byte) 0xAA, (byte) 0xBB, (byte) 0xCC, 0x42};
+        for (IBitReader reader : readers(data)) {
+            INamedTreePart tree = SPEC.decode(reader);
+            assertEquals(0xAA, (int) ((INamedTreePart) tree.get("inner")).get("x"), reader.getClass().getSimpleName());
+            assertEquals(0x42, (int) tree.get("after"), reader.getClass().getSimpleName());
+            assertEquals(5, reader.getByteIndex(), reader.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    public void nestedSpecCannotReadPastThePrefix() {
+        IDynamicPacketSpec spec = DynamicPacketSpec.builder()
+                .addLengthPrefixed("inner", 8, DynamicPacketSpec.builder()
+                        .addUnsigned("x", 8)
+                        .addUnsigned("y", 16)
+                        .build())
+                .addUnsigned("after", 8)
+                .build();
+        //Enough data for y, but only 1 byte is part of the region
+        byte[] data = {1, (byte) 0xAA, 0x11, 0x22, 0x33};
+        for (IBitReader reader : readers(data)) {
+            assertThrows(DecodeException.class, () -> spec.decode(reader), reader.getClass().getSimpleName());
+        }
+        //Regions that exceed the data fail as well
+        assertThrows(DecodeException.class, () -> SPEC.decode(new byte[]{9, 1, 2}));
+    }
+
+    @Test
+    public void regionsAreBoundedReaders() {
+        IDynamicPacketSpec spec = DynamicPacketSpec.builder()
+                .addUnsigned("length", 8)
+                .addRegion("region", (reader, tree) -> (int) tree.get("length"))
+                .addUnsigned("after", 8)
+                .build();
+        byte[] data = {2, 0x12, 0x34, 0x56};
+        for (IBitReader reader : readers(data)) {
+            INamedTreePart tree = spec.decode(reader);
+            assertEquals(0x56, (int) tree.get("after"));
+            IBitReader region = (IBitReader) tree.get("region");
+            assertEquals(0x1234, region.readBits(16));
+            assertThrows(DecodeException.class, region::readBit);
+        }
+    }
+
+    private static List<IBitReader> readers(byte[] data) {
+        List<IBitReader> ret = new ArrayList<>(BitReaderEquivalenceTest.readers(data, 0));
+        ret.add(new BitReader(data, 0));
+        return ret;
+    }
+
+}
@@ -0,0 +1,65 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.DecodeException;
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.bitdecoder.api.IPacketColumns;
+import nl.elec332.lib.java.tree.INamedTreePart;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Checks that columns hold the same values as packets decoded one by one.
+ */
+public class PacketColumnsTest {
+
+    private static final int PACKET_SIZE = 24;
+    private static final int PACKETS = 100;
+
+    private static final IDynamicPacketSpec SPEC = DynamicPacketSpec.builder()
+            .addUnsigned("u3", 3)
+            .addUnsigned("u40", 40)
+            .addFlag("flag")
+            .addFloat("float")
+            .addDouble("double")
+            .build();
+
+    @Test
+    public void columnsMatchDecode() {
+        byte[] data = new byte[PACKETS * PACKET_SIZE];
+        new Random(1).nextBytes(data);
+        IPacketColumns columns = SPEC.decodeColumns(data, 0, PACKETS, PACKET_SIZE);
+        assertEquals(PACKETS, columns.size());
+        for (int i = 0; i < PACKETS; i++) {
+            INamedTreePart tree = SPEC.decode(data, i * PACKET_SIZE);
+            assertEquals((Object) tree.get("u3"), columns.getInts("u3")[i]);
+            assertEquals((Object) tree.get("u40"), columns.getLongs("u40")[i]);
+            assertEquals((Object) tree.get("flag"), columns.getBooleans("flag")[i]);
+            assertEquals((Object) tree.get("float"), columns.getFloats("float")[i]);
+            assertEquals((Object) tree.get("double"), columns.getDoubles("double")[i]);
+        }
+    }
+
+    @Test
+    public void lastPacketOnlyNeedsItsParameters() {
+        //The parameters take 18 bytes, the last frame doesn't have to be padded up to the full frame length
+        byte[] data = new byte[PACKET_SIZE + 18];
+        assertEquals(2, SPEC.decodeColumns(data, 0, 2, PACKET_SIZE).size());
+        assertThrows(DecodeException.class, () -> SPEC.decodeColumns(data, 0, 3, PACKET_SIZE));
+        assertEquals(0, SPEC.decodeColumns(data, 0, 0, PACKET_SIZE).size());
+    }
+
+    @Test
+    public void invalidFrameLengthsFail() {
+        byte[] data = new byte[PACKETS * PACKET_SIZE];
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> SPEC.decodeColumns(data, 0, 2, (d, i) -> 0));
+        assertEquals("Invalid frame length: 0", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> SPEC.decodeColumns(data, 0, 2, (d, i) -> -PACKET_SIZE));
+    }
+
+}
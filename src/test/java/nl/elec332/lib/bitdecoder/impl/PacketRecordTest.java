@@ -0,0 +1,126 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.bitdecoder.api.IPacketRecord;
+import nl.elec332.lib.java.tree.INamedTreePart;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Checks that records hold the same values as decoded trees, for every kind of step.
+ */
+public class PacketRecordTest {
+
+    private static final String[] NAMES = {"u3", "s7", "u31", "u40", "s33", "s64", "flag", "float", "double", "u64"};
+
+    @Test
+    public void fixedWidthRecordsMatchDecode() {
+        IDynamicPacketSpec spec = DynamicPacketSpec.builder()
+                .addUnsigned("u3", 3)
+                .addSigned("s7", 7)
+                .addUnsigned("u31", 31)
+                .addUnsigned("u40", 40)
+                .addSigned("s33", 33)
+                .addSigned("s64", 64)
+                .addFlag("flag")
+                .addFloat("float")
+                .addDouble("double")
+                .addUnsigned("u64", 64)
+                .build();
+        Random random = new Random(0);
+        byte[] data = new byte[48];
+        for (int i = 0; i < 100; i++) {
+            random.nextBytes(data);
+            INamedTreePart tree = spec.decode(data);
+            IPacketRecord record = spec.decodeRecord(data, 0);
+            assertEquals(NAMES.length, record.getSlotCount());
+            for (String name : NAMES) {
+                int slot = spec.slotOf(name);
+                assertEquals(name, record.getName(slot));
+                assertTrue(record.isPresent(slot));
+                assertEquals((Object) tree.get(name), record.get(slot), name);
+                assertEquals((Object) tree.get(name), record.toTree().get(name), name);
+            }
+            assertEquals((long) tree.get("u40"), record.getLong(spec.slotOf("u40")));
+            assertEquals((int) tree.get("s7"), record.getInt(spec.slotOf("s7")));
+            assertEquals((boolean) tree.get("flag"), record.getBoolean(spec.slotOf("flag")));
+            assertEquals((double) tree.get("double"), record.getDouble(spec.slotOf("double")));
+        }
+    }
+
+    @Test
+    public void fieldChoicesUseTheirSlots() {
+        IDynamicPacketSpec spec = DynamicPacketSpec.builder()
+                .addUnsigned("type", 8)
+                .addFieldChoice("type", v -> v == 1,
+                        DynamicPacketSpec.builder().addUnsigned("one", 8).build(),
+                        DynamicPacketSpec.builder().setName("other").addUnsigned("value", 16).build())
+                .addUnsigned("end", 8)
+                .build();
+        IPacketRecord record = spec.decodeRecord(new byte[]{1, 0x12, 0x34}, 0);
+        assertEquals(0x12, record.get("one"));
+        assertEquals(0x34, record.get("end"));
+        assertFalse(record.isPresent(spec.slotOf("other")));
+
+        record = spec.decodeRecord(new byte[]{2, 0x12, 0x34, 0x56}, 0);
+        assertFalse(record.isPresent(spec.slotOf("one")));
+        assertEquals(0x1234, ((IPacketRecord) record.get("other")).get("value"));
+        assertEquals(0x56, record.get("end"));
+    }
+
+    @Test
+    public void parameterFunctionsAndNestedSpecsGetSlots() {
+        IDynamicPacketSpec spec = DynamicPacketSpec.builder()
+                .addUnsigned("n", 4)
+                //Reads an earlier value from the tree view
+                .addParameter("sum", (reader, tree) -> (int) tree.get("n") + reader.readBits(4))
+                .addNestedParameter("nested", builder -> builder.addUnsigned("x", 8).addParameter("y", r -> r.readBits(8)))
+                .addSwitch("key", r -> r.readBits(8), Map.of(
+                        1, DynamicPacketSpec.builder().addUnsigned("one", 8).build(),
+                        2, DynamicPacketSpec.builder().setName("two").addUnsigned("value", 8).build()
+                ), null)
+                .assertPreviousParameter(v -> v != null, "Missing value")
+                .addSpecialParameter((reader, tree) -> tree.put("special", reader.readBits(8)))
+                .addUnsigned("end", 8)
+                .build();
+        for (byte[] data : new byte[][]{{0x35, 0x11, 0x22, 1, 0x44, 0x55, 0x66}, {0x35, 0x11, 0x22, 2, 0x44, 0x55, 0x66}}) {
+            INamedTreePart tree = spec.decode(data);
+            IPacketRecord record = spec.decodeRecord(data, 0);
+            for (String name : new String[]{"n", "sum", "key", "one", "special", "end"}) {
+                assertEquals((Object) tree.get(name), record.get(name), name);
+            }
+            assertTrue(spec.slotOf("sum") >= 0);
+            assertTrue(spec.slotOf("nested") >= 0);
+            assertTrue(spec.slotOf("one") >= 0);
+            assertEquals(-1, spec.slotOf("special"));
+            assertEquals(8, record.get("sum"));
+            assertEquals(0x22, (int) ((INamedTreePart) record.get("nested")).get("y"));
+            assertEquals((Object) tree.get("end"), record.toTree().get("end"));
+            if (data[3] == 2) {
+                assertEquals(0x44, ((IPacketRecord) record.get("two")).get("value"));
+                assertNull(record.get("one"));
+            }
+        }
+    }
+
+    @Test
+    public void conflictingTypesAreRejected() {
+        IDynamicPacketSpec spec = DynamicPacketSpec.builder()
+                .addUnsigned("a", 8)
+                .addParameter("a", r -> r.readBits(8))
+                .build();
+        assertEquals(-1, spec.slotOf("a"));
+        assertThrows(IllegalStateException.class, () -> spec.decodeRecord(new byte[2], 0));
+    }
+
+}
@@ -0,0 +1,128 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.DecodeException;
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.java.tree.INamedTreePart;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Checks that frames decoded in parallel are equal to (and in the same order as) frames decoded one by one.
+ */
+public class ParallelDecoderTest {
+
+    private static final int FRAMES = 500;
+
+    /**
+     * Frames start with their length in bytes, followed by two values and padding up to the length
+     */
+    private static final IDynamicPacketSpec SPEC = DynamicPacketSpec.builder()
+            .addUnsigned("length", 8)
+            .addUnsigned("a", 12)
+            .addSigned("b", 20)
+            .build();
+
+    @Test
+    public void offsetsMatchSequentialDecode() {
+        Random random = new Random(0);
+        int[] offsets = new int[FRAMES];
+        byte[] data = frames(random, offsets);
+        List<INamedTreePart> expected = sequential(data, offsets);
+        assertFrames(expected, SPEC.decodeParallel(data, offsets));
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            assertFrames(expected, SPEC.decodeParallel(data, offsets, executor));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void frameFunctionMatchesSequentialDecode() {
+        Random random = new Random(1);
+        int[] offsets = new int[FRAMES];
+        byte[] data = frames(random, offsets);
+        List<INamedTreePart> expected = sequential(data, offsets);
+        List<INamedTreePart> frames = SPEC.decodeParallel(data, 0, data.length, (d, i) -> Byte.toUnsignedInt(d[i]), ForkJoinPool.commonPool());
+        assertFrames(expected, frames);
+    }
+
+    @Test
+    public void noFramesGiveAnEmptyList() {
+        assertTrue(SPEC.decodeParallel(new byte[4], new int[0]).isEmpty());
+        assertTrue(SPEC.decodeParallel(new byte[4], 0, 0, (d, i) -> 1, ForkJoinPool.commonPool()).isEmpty());
+    }
+
+    @Test
+    public void frameErrorsAreRethrownAsIs() {
+        Random random = new Random(2);
+        int[] offsets = new int[FRAMES];
+        byte[] data = frames(random, offsets);
+        //Cut the last frame short, it needs 5 bytes
+        int end = offsets[FRAMES - 1] + 3;
+        assertThrows(DecodeException.class, () -> SPEC.decodeParallel(data, offsets, end, ForkJoinPool.commonPool()));
+
+        IDynamicPacketSpec failing = DynamicPacketSpec.builder()
+                .addUnsigned("length", 8)
+                .addParameter("a", r -> {
+                    throw new IllegalStateException("Bad frame");
+                })
+                .build();
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> failing.decodeParallel(data, offsets));
+        assertEquals("Bad frame", e.getMessage());
+    }
+
+    @Test
+    public void invalidFrameLengthsFail() {
+        byte[] data = new byte[16];
+        assertThrows(IllegalArgumentException.class, () -> SPEC.decodeParallel(data, 0, data.length, (d, i) -> 0, ForkJoinPool.commonPool()));
+    }
+
+    private static List<INamedTreePart> sequential(byte[] data, int[] offsets) {
+        INamedTreePart[] ret = new INamedTreePart[offsets.length];
+        for (int i = 0; i < offsets.length; i++) {
+            ret[i] = SPEC.decode(data, offsets[i]);
+        }
+        return Arrays.asList(ret);
+    }
+
+    private static void assertFrames(List<INamedTreePart> expected, List<INamedTreePart> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            for (String name : new String[]{"length", "a", "b"}) {
+                assertEquals((Object) expected.get(i).get(name), actual.get(i).get(name), "frame " + i + ", " + name);
+            }
+        }
+    }
+
+    /**
+     * Writes random frames of 5 to 20 bytes and stores their offsets
+     */
+    private static byte[] frames(Random random, int[] offsets) {
+        byte[] ret = new byte[offsets.length * 20];
+        int index = 0;
+        for (int i = 0; i < offsets.length; i++) {
+            int length = 5 + random.nextInt(16);
+            offsets[i] = index;
+            for (int j = 1; j < length; j++) {
+                ret[index + j] = (byte) random.nextInt();
+            }
+            ret[index] = (byte) length;
+            index += length;
+        }
+        return Arrays.copyOf(ret, index);
+    }
+
+}
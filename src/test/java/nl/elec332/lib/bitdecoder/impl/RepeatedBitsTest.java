@@ -0,0 +1,57 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.DecodeException;
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.java.tree.INamedTreePart;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Checks repeated fields with a count read from the packet itself.
+ */
+public class RepeatedBitsTest {
+
+    @Test
+    public void valuesAreUnpacked() {
+        IDynamicPacketSpec spec = spec(12);
+        INamedTreePart tree = spec.decode(new byte[]{3, 0x12, 0x34, 0x56, 0x78, (byte) 0x9A, 0x42});
+        assertArrayEquals(new int[]{0x123, 0x456, 0x789}, (int[]) tree.get("values"));
+        assertEquals(0xA4, (int) tree.get("end"));
+
+        tree = spec(36).decode(new byte[]{1, 0x12, 0x34, 0x56, 0x78, (byte) 0x9A, 0x42});
+        assertArrayEquals(new long[]{0x123456789L}, (long[]) tree.get("values"));
+        assertEquals(0xA4, (int) tree.get("end"));
+    }
+
+    @Test
+    public void countExceedingTheDataFails() {
+        //255 values of 12 bits don't fit in 4 bytes
+        assertThrows(DecodeException.class, () -> spec(12).decode(new byte[]{(byte) 255, 1, 2, 3, 4}));
+        //Must fail before allocating the array
+        IDynamicPacketSpec huge = DynamicPacketSpec.builder()
+                .addRepeatedBits("values", 64, (reader, tree) -> Integer.MAX_VALUE)
+                .build();
+        assertThrows(DecodeException.class, () -> huge.decode(new byte[16]));
+        IDynamicPacketSpec negative = DynamicPacketSpec.builder()
+                .addRepeatedBits("values", 8, (reader, tree) -> -1)
+                .build();
+        assertThrows(DecodeException.class, () -> negative.decode(new byte[16]));
+    }
+
+    /**
+     * A count byte, the values and an end byte
+     */
+    private static IDynamicPacketSpec spec(int bits) {
+        return DynamicPacketSpec.builder()
+                .addUnsigned("count", 8)
+                .addRepeatedBits("values", bits, (reader, tree) -> (int) tree.get("count"))
+                .addUnsigned("end", 8)
+                .build();
+    }
+
+}
@@ -0,0 +1,63 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.java.tree.INamedTreePart;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Checks that switches select the right case, for dense as well as sparse keys.
+ */
+public class SwitchParameterTest {
+
+    @Test
+    public void switchDecodesTheMatchingCase() {
+        Map<Integer, IDynamicPacketSpec> cases = Map.of(
+                1, DynamicPacketSpec.builder().addUnsigned("one", 8).build(),
+                2, DynamicPacketSpec.builder().setName("two").addUnsigned("value", 16).build()
+        );
+        IDynamicPacketSpec other = DynamicPacketSpec.builder().addUnsigned("other", 4).build();
+        IDynamicPacketSpec spec = DynamicPacketSpec.builder()
+                .addSwitch("type", r -> r.readBits(8), cases, other)
+                .addUnsigned("end", 8)
+                .build();
+
+        INamedTreePart tree = spec.decode(new byte[]{1, 0x12, 0x34});
+        assertEquals(1, (int) tree.get("type"));
+        assertEquals(0x12, (int) tree.get("one"));
+        assertEquals(0x34, (int) tree.get("end"));
+
+        tree = spec.decode(new byte[]{2, 0x12, 0x34, 0x56});
+        assertEquals(0x1234, (int) ((INamedTreePart) tree.get("two")).get("value"));
+        assertEquals(0x56, (int) tree.get("end"));
+
+        tree = spec.decode(new byte[]{7, 0x12, 0x34});
+        assertEquals(1, (int) tree.get("other"));
+        assertEquals(0x23, (int) tree.get("end"));
+    }
+
+    @Test
+    public void sparseKeysFindTheirCase() {
+        Map<Integer, IDynamicPacketSpec> cases = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            int key = i * 0x10001 - 1000;
+            cases.put(key, DynamicPacketSpec.builder().addParameter("case", r -> key).build());
+        }
+        IDynamicPacketSpec spec = DynamicPacketSpec.builder()
+                .addSwitch("type", r -> (int) r.readLong(32), cases, null)
+                .build();
+        for (int key : cases.keySet()) {
+            byte[] data = {(byte) (key >>> 24), (byte) (key >>> 16), (byte) (key >>> 8), (byte) key};
+            assertEquals(key, (int) spec.decode(data).get("case"));
+        }
+        assertNull(spec.decode(new byte[]{0, 0, 0, 1}).get("case"));
+    }
+
+}
@@ -0,0 +1,116 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.bitdecoder.api.ISyncScanner;
+import nl.elec332.lib.java.tree.INamedTreePart;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Checks sync word searches on arrays and readers, and resynchronization after corrupted packets.
+ */
+public class SyncScannerTest {
+
+    private static final ISyncScanner SYNC = SyncScanner.forBytes(new byte[]{(byte) 0xA5, 0x5A});
+
+    @Test
+    public void indexOfMatchesNaiveSearch() {
+        Random random = new Random(0);
+        for (int i = 0; i < 200; i++) {
+            byte[] data = new byte[16 + random.nextInt(64)];
+            //Few different values, so the sync word shows up often
+            for (int j = 0; j < data.length; j++) {
+                data[j] = (byte) (random.nextInt(4) * 0x55);
+            }
+            int bits = 1 + random.nextInt(20);
+            long pattern = random.nextLong() & (-1L >>> (64 - bits));
+            ISyncScanner scanner = SyncScanner.forBits(pattern, bits);
+            long from = random.nextInt(data.length * 8);
+            assertEquals(naiveIndexOf(data, from, pattern, bits), scanner.indexOf(data, from, data.length * 8L), "iteration " + i);
+        }
+    }
+
+    @Test
+    public void findStopsAtTheSyncWord() {
+        byte[] data = {0, 0x33, (byte) 0xA5, 0x5A, 1};
+        for (IBitReader reader : readers(data)) {
+            assertEquals(true, SYNC.find(reader), reader.getClass().getSimpleName());
+            assertEquals(2, reader.getByteIndex(), reader.getClass().getSimpleName());
+            reader.readByte();
+            assertEquals(false, SYNC.find(reader), reader.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    public void decodeSyncedSkipsGarbage() {
+        IDynamicPacketSpec spec = DynamicPacketSpec.builder()
+                .addUnsigned("sync", 16)
+                .addUnsigned("value", 8)
+                .build();
+        byte[] data = {0, 0x33, (byte) 0xA5, 0x5A, 1, 0, 0, (byte) 0xA5, 0x5A, 2, (byte) 0xA5, 0x5A, 3, 0x11, (byte) 0xA5, 0x5A};
+        List<INamedTreePart> packets = spec.decodeSynced(data, 0, data.length, SYNC);
+        assertEquals(3, packets.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i + 1, (int) packets.get(i).get("value"));
+        }
+    }
+
+    @Test
+    public void decodeNextRetriesAfterTheStartOfAFailedPacket() {
+        ISyncScanner sync = SyncScanner.forBytes(new byte[]{(byte) 0xA5});
+        //The first packet is corrupted, the real packet starts at its second byte
+        IDynamicPacketSpec spec = DynamicPacketSpec.builder()
+                .addUnsigned("sync", 8)
+                .addUnsigned("value", 8)
+                .assertPreviousParameter(v -> (int) v != 0xA5, "Corrupted packet")
+                .addUnsigned("end", 8)
+                .build();
+        byte[] data = {(byte) 0xA5, (byte) 0xA5, 1, 2};
+        assertEquals(1, spec.decodeSynced(data, 0, data.length, sync).size());
+        List<IBitReader> seekable = List.of(new BitReader(data, 0), new WordBitReader(data, 0), new ByteBufferBitReader(ByteBuffer.wrap(data), 0));
+        for (IBitReader reader : seekable) {
+            INamedTreePart tree = spec.decodeNext(reader, sync);
+            assertNotNull(tree, reader.getClass().getSimpleName());
+            assertEquals(1, (int) tree.get("value"));
+            assertEquals(2, (int) tree.get("end"));
+            assertNull(spec.decodeNext(reader, sync));
+        }
+        //Streams cannot move back, so they continue searching where decoding failed
+        assertNull(spec.decodeNext(new StreamBitReader(new ByteArrayInputStream(data), 16), sync));
+    }
+
+    private static List<IBitReader> readers(byte[] data) {
+        return List.of(
+                new BitReader(data, 0),
+                new WordBitReader(data, 0),
+                new ByteBufferBitReader(ByteBuffer.wrap(data), 0),
+                new StreamBitReader(new ByteArrayInputStream(data), 16)
+        );
+    }
+
+    private static long naiveIndexOf(byte[] data, long from, long pattern, int bits) {
+        for (long i = from; i + bits <= data.length * 8L; i++) {
+            long value = 0;
+            for (int j = 0; j < bits; j++) {
+                long bit = i + j;
+                value = value << 1 | ((data[(int) (bit >>> 3)] >>> (7 - (bit & 7))) & 1);
+            }
+            if (value == pattern) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
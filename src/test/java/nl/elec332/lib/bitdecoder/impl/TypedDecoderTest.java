@@ -0,0 +1,79 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.IDynamicPacketSpec;
+import nl.elec332.lib.java.tree.INamedTreePart;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Checks that factories, constructors and fields bound to a spec get the parameters in order.
+ */
+public class TypedDecoderTest {
+
+    private static final IDynamicPacketSpec SPEC = DynamicPacketSpec.builder()
+            .addUnsigned("a", 5)
+            .addSigned("b", 11)
+            .addUnsigned("c", 40)
+            .addFlag("d")
+            .build();
+
+    @Test
+    public void typedDecodersReadFieldsInOrder() throws ReflectiveOperationException {
+        MethodType type = MethodType.methodType(String.class, int.class, int.class, long.class, boolean.class);
+        var factory = SPEC.<String>bind(MethodHandles.lookup().findStatic(TypedDecoderTest.class, "join", type));
+        var constructed = SPEC.bind(MethodHandles.lookup(), Constructed.class);
+        var fields = SPEC.bind(MethodHandles.lookup(), Fields.class);
+        Random random = new Random(0);
+        byte[] packet = new byte[8];
+        for (int i = 0; i < 100; i++) {
+            random.nextBytes(packet);
+            INamedTreePart tree = SPEC.decode(packet);
+            String expected = join((int) tree.get("a"), (int) tree.get("b"), (long) tree.get("c"), (boolean) tree.get("d"));
+            assertEquals(expected, factory.decode(packet));
+            assertEquals(expected, constructed.decode(packet).value);
+            Fields f = fields.decode(packet);
+            assertEquals(expected, join(f.a, f.b, f.c, f.d));
+        }
+    }
+
+    @Test
+    public void specsWithOtherParametersCannotBeBound() {
+        IDynamicPacketSpec spec = DynamicPacketSpec.builder()
+                .addUnsigned("a", 5)
+                .addParameter("b", r -> r.readBits(4))
+                .build();
+        assertThrows(IllegalStateException.class, () -> spec.bind(MethodHandles.lookup(), Fields.class));
+    }
+
+    private static String join(int a, int b, long c, boolean d) {
+        return a + "," + b + "," + c + "," + d;
+    }
+
+    public static final class Constructed {
+
+        public Constructed(int a, int b, long c, boolean d) {
+            this.value = join(a, b, c, d);
+        }
+
+        private final String value;
+
+    }
+
+    public static final class Fields {
+
+        public int a;
+        public int b;
+        public long c;
+        public boolean d;
+
+    }
+
+}
@@ -0,0 +1,178 @@
+package nl.elec332.lib.bitdecoder.impl;
+
+import nl.elec332.lib.bitdecoder.api.DecodeException;
+import nl.elec332.lib.bitdecoder.api.IBitReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Created by Elec332 on 16-10-2026
+ * <p>
+ * Round-trips of the variable-length codes on every reader, at every bit alignment.
+ * The values cover codes that fit in a single word as well as the longer codes that are read bytewise/bitwise.
+ */
+public class VarCodesTest {
+
+    private static final int VALUES = 200;
+
+    @Test
+    public void varIntRoundTrip() {
+        long[] values = values(new Random(1), 64);
+        roundTrip(values, VarCodesTest::putVarInt, IBitReader::readVarInt);
+    }
+
+    @Test
+    public void zigZagVarIntRoundTrip() {
+        long[] values = values(new Random(2), 64);
+        roundTrip(values, (w, v) -> putVarInt(w, (v << 1) ^ (v >> 63)), IBitReader::readZigZagVarInt);
+    }
+
+    @Test
+    public void expGolombRoundTrip() {
+        long[] values = values(new Random(3), 62);
+        roundTrip(values, VarCodesTest::putExpGolomb, IBitReader::readExpGolomb);
+    }
+
+    @Test
+    public void signedExpGolombRoundTrip() {
+        long[] values = values(new Random(4), 61);
+        for (int i = 0; i < values.length; i += 2) {
+            values[i] = -values[i];
+        }
+        roundTrip(values, (w, v) -> putExpGolomb(w, v > 0 ? 2 * v - 1 : -2 * v), IBitReader::readSignedExpGolomb);
+    }
+
+    @Test
+    public void eliasGammaRoundTrip() {
+        long[] values = values(new Random(5), 62);
+        for (int i = 0; i < values.length; i++) {
+            values[i]++;
+        }
+        roundTrip(values, (w, v) -> putExpGolomb(w, v - 1), IBitReader::readEliasGamma);
+    }
+
+    @Test
+    public void truncatedCodesFail() {
+        byte[] varInt = {(byte) 0x80, (byte) 0x80};
+        byte[] expGolomb = {0, 0};
+        for (IBitReader reader : allReaders(varInt)) {
+            assertThrows(DecodeException.class, reader::readVarInt);
+        }
+        for (IBitReader reader : allReaders(expGolomb)) {
+            assertThrows(DecodeException.class, reader::readExpGolomb);
+        }
+    }
+
+    @Test
+    public void streamDoesNotWaitForAFullWord() {
+        byte[] data = {0x05, (byte) 0xAC, 0x02, 0x28};
+        //Fails when the reader asks for more data than the stream has received so far
+        InputStream live = new ByteArrayInputStream(data) {
+
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                if (available() == 0) {
+                    throw new IllegalStateException("Blocked on a live stream");
+                }
+                return super.read(b, off, len);
+            }
+
+        };
+        IBitReader reader = new StreamBitReader(live, 16);
+        assertEquals(5, reader.readBits(8));
+        assertEquals(300, reader.readVarInt());
+        assertEquals(4, reader.readExpGolomb());
+    }
+
+    private static void roundTrip(long[] values, Encoder encoder, ToLongFunction<IBitReader> decoder) {
+        for (int alignment = 0; alignment < 8; alignment++) {
+            BitWriter writer = new BitWriter();
+            writer.put(0, alignment);
+            for (long value : values) {
+                encoder.encode(writer, value);
+            }
+            for (IBitReader reader : allReaders(writer.toByteArray())) {
+                reader.skipBits(alignment);
+                for (int i = 0; i < values.length; i++) {
+                    assertEquals(values[i], decoder.applyAsLong(reader), reader.getClass().getSimpleName() + ", alignment " + alignment + ", value " + i);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Random values of 0 up to the provided amount of bits, with every length equally likely
+     */
+    private static long[] values(Random random, int maxBits) {
+        long[] ret = new long[VALUES];
+        for (int i = 0; i < ret.length; i++) {
+            int bits = random.nextInt(maxBits + 1);
+            ret[i] = bits == 0 ? 0 : random.nextLong() >>> (64 - bits);
+        }
+        ret[0] = 0;
+        ret[1] = -1L >>> (64 - maxBits);
+        return ret;
+    }
+
+    private static List<IBitReader> allReaders(byte[] data) {
+        List<IBitReader> ret = new ArrayList<>(BitReaderEquivalenceTest.readers(data, 0));
+        ret.add(new BitReader(data, 0));
+        return ret;
+    }
+
+    private static void putVarInt(BitWriter writer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            writer.put((value & 0x7F) | 0x80, 8);
+            value >>>= 7;
+        }
+        writer.put(value, 8);
+    }
+
+    private static void putExpGolomb(BitWriter writer, long value) {
+        int bits = 64 - Long.numberOfLeadingZeros(value + 1);
+        writer.put(0, bits - 1);
+        writer.put(value + 1, bits);
+    }
+
+    private interface Encoder {
+
+        void encode(BitWriter writer, long value);
+
+    }
+
+    /**
+     * Writes values MSB first
+     */
+    private static final class BitWriter {
+
+        private byte[] data = new byte[64];
+        private long position;
+
+        private void put(long value, int bits) {
+            for (int i = bits - 1; i >= 0; i--, position++) {
+                if ((position >>> 3) == data.length) {
+                    data = Arrays.copyOf(data, data.length * 2);
+                }
+                if (((value >>> i) & 1) != 0) {
+                    data[(int) (position >>> 3)] |= 0x80 >>> (position & 7);
+                }
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(data, (int) ((position + 7) >>> 3));
+        }
+
+    }
+
+}